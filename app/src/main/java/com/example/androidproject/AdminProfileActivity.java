@@ -22,6 +22,10 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
+import com.example.androidproject.data.AttendeeNameBackfill;
+import com.example.androidproject.data.EventTimeBackfill;
+import com.example.androidproject.data.GenderSpecBackfill;
+import com.example.androidproject.data.SessionIdentity;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
@@ -93,6 +97,13 @@ public class AdminProfileActivity extends AppCompatActivity {
         setupButtonListeners();
         
         setupBottomNavigation();
+
+        // Give older events the numeric time fields the date range queries need
+        EventTimeBackfill.runOnce(this);
+        // and a numeric genderSpec the feed's eligibility filter can match
+        GenderSpecBackfill.runOnce(this);
+        // and attendance rows the lowercased name attendee search matches on
+        AttendeeNameBackfill.runOnce(this);
     }
 
     private void initializeViews() {
@@ -432,7 +443,7 @@ public class AdminProfileActivity extends AppCompatActivity {
     private void performFirebaseLogout() {
         try {
             Toast.makeText(this, "Logging out...", Toast.LENGTH_SHORT).show();
-            mAuth.signOut();
+            SessionIdentity.getInstance(this).logOut();
 
             if (mAuth.getCurrentUser() == null) {
                 redirectToLogin();
@@ -21,15 +21,17 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.model.DateCodec;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 
 public class CreateEventActivity extends AppCompatActivity {
@@ -43,7 +45,6 @@ public class CreateEventActivity extends AppCompatActivity {
     private FirebaseFirestore db;
 
     private Calendar startCalendar, endCalendar;
-    private SimpleDateFormat dateTimeFormatter;
 
     private final ArrayList<String> IMAGE_NAMES = new ArrayList<>();
     private final ArrayList<Integer> IMAGE_RES_IDS = new ArrayList<>();
@@ -60,7 +61,6 @@ public class CreateEventActivity extends AppCompatActivity {
         startCalendar = Calendar.getInstance();
         endCalendar = Calendar.getInstance();
         endCalendar.add(Calendar.HOUR, 2);
-        dateTimeFormatter = new SimpleDateFormat("dd MMM yyyy, hh:mm a", Locale.getDefault());
 
         eventName = findViewById(R.id.eventName);
         venue = findViewById(R.id.venue);
@@ -162,7 +162,7 @@ public class CreateEventActivity extends AppCompatActivity {
                 (view, hour, minute) -> {
                     calendar.set(Calendar.HOUR_OF_DAY, hour);
                     calendar.set(Calendar.MINUTE, minute);
-                    field.setText(dateTimeFormatter.format(calendar.getTime()));
+                    field.setText(DateCodec.formatEventDateTime(calendar.getTimeInMillis()));
 
                     if (field == endDateTime && !endCalendar.after(startCalendar)) {
                         Toast.makeText(this, "End date-time must be after start date-time", Toast.LENGTH_SHORT).show();
@@ -315,11 +315,11 @@ public class CreateEventActivity extends AppCompatActivity {
             return;
         }
 
-        int genderCode = 2;
+        int genderCode = Event.GENDER_ANY;
         int selectedId = genderGroup.getCheckedRadioButtonId();
-        if (selectedId == R.id.male) genderCode = 1;
-        else if (selectedId == R.id.female) genderCode = 0;
-        else genderCode = 2;
+        if (selectedId == R.id.male) genderCode = Event.GENDER_MALE;
+        else if (selectedId == R.id.female) genderCode = Event.GENDER_FEMALE;
+        else genderCode = Event.GENDER_ANY;
 
         String eventID = "E" + System.currentTimeMillis();
 
@@ -333,6 +333,7 @@ public class CreateEventActivity extends AppCompatActivity {
         event.put("description", desc);
         event.put("genderSpec", genderCode);
         event.put("currentAttendees", 0);
+        event.putAll(EventCodec.timeFields(start, end));
 
         if (selectedImageResId != 0) {
             String resKey = getResources().getResourceEntryName(selectedImageResId);
@@ -349,33 +350,23 @@ public class CreateEventActivity extends AppCompatActivity {
             return;
         }
 
-        db.collection("admin")
-                .document(adminUid)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc.exists()) {
-                        String adminID = doc.getString("adminID");
-                        if (adminID != null) {
-                            event.put("adminID", adminID);
-
-                            db.collection("events")
-                                    .document(eventID)
-                                    .set(event)
-                                    .addOnSuccessListener(unused -> {
-                                        Toast.makeText(this, "Event created successfully!", Toast.LENGTH_SHORT).show();
-                                        clearFields();
-                                    })
-                                    .addOnFailureListener(e ->
-                                            Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
-                        } else {
-                            Toast.makeText(this, "Admin ID missing in Firestore record.", Toast.LENGTH_SHORT).show();
-                        }
-                    } else {
-                        Toast.makeText(this, "Admin record not found.", Toast.LENGTH_SHORT).show();
-                    }
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed to fetch adminID: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+        SessionIdentity.getInstance(this).withAdminID(adminID -> {
+            if (adminID != null) {
+                event.put("adminID", adminID);
+
+                db.collection("events")
+                        .document(eventID)
+                        .set(event)
+                        .addOnSuccessListener(unused -> {
+                            Toast.makeText(this, "Event created successfully!", Toast.LENGTH_SHORT).show();
+                            clearFields();
+                        })
+                        .addOnFailureListener(e ->
+                                Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+            } else {
+                Toast.makeText(this, "Admin ID missing in Firestore record.", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     //clear all fields
@@ -22,6 +22,9 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
+import com.example.androidproject.model.DateCodec;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -32,10 +35,8 @@ import org.json.JSONObject;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Locale;
 import java.util.Map;
 
 public class EditEventActivity extends AppCompatActivity {
@@ -51,7 +52,6 @@ public class EditEventActivity extends AppCompatActivity {
 
     private String eventID;
     private Calendar startCalendar, endCalendar;
-    private SimpleDateFormat dateTimeFormatter;
 
     // EmailJS
     private static final String EMAILJS_SERVICE_ID = "service_bj4nogo";
@@ -70,7 +70,6 @@ public class EditEventActivity extends AppCompatActivity {
         setContentView(R.layout.activity_edit_event);
 
         db = FirebaseFirestore.getInstance();
-        dateTimeFormatter = new SimpleDateFormat("dd MMM yyyy, hh:mm a", Locale.getDefault());
 
         // Views
         eventName = findViewById(R.id.eventName);
@@ -170,27 +169,23 @@ public class EditEventActivity extends AppCompatActivity {
                         DocumentSnapshot doc = querySnapshot.getDocuments().get(0);
                         Map<String, Object> data = doc.getData();
                         if (data == null) return;
+                        Event event = EventCodec.decode(doc.getId(), data);
 
-                        eventName.setText((String) data.get("eventName"));
-                        venue.setText((String) data.get("venue"));
-                        startDateTime.setText((String) data.get("startDateTime"));
-                        endDateTime.setText((String) data.get("endDateTime"));
-                        Object paxObj = data.get("pax");
-                        if (paxObj != null) pax.setText(String.valueOf(paxObj));
-                        description.setText((String) data.get("description"));
-
-                        Long genderSpec = (Long) data.get("genderSpec");
-                        if (genderSpec != null) {
-                            if (genderSpec == 0) genderGroup.check(R.id.male);
-                            else if (genderSpec == 1) genderGroup.check(R.id.female);
-                            else genderGroup.check(R.id.none);
-                        }
+                        eventName.setText(event.getEventName());
+                        venue.setText(event.getVenue());
+                        startDateTime.setText(event.getStartDateTime());
+                        endDateTime.setText(event.getEndDateTime());
+                        if (data.get("pax") != null) pax.setText(String.valueOf(event.getPax()));
+                        description.setText(event.getDescription());
+
+                        int genderSpec = event.getGenderSpec();
+                        if (genderSpec == Event.GENDER_MALE) genderGroup.check(R.id.male);
+                        else if (genderSpec == Event.GENDER_FEMALE) genderGroup.check(R.id.female);
+                        else genderGroup.check(R.id.none);
 
 
-                        String rawImage = firstNonEmpty(
-                                (String) data.get("imageName"),
-                                (String) data.get("imageResKey")
-                        );
+                        // The codec falls back to imageResKey when imageName is empty
+                        String rawImage = firstNonEmpty(event.getImageName());
 
                         if (rawImage == null) {
                             applySelectedImageUI();
@@ -280,7 +275,7 @@ public class EditEventActivity extends AppCompatActivity {
                 (view, hour, minute) -> {
                     calendar.set(Calendar.HOUR_OF_DAY, hour);
                     calendar.set(Calendar.MINUTE, minute);
-                    field.setText(dateTimeFormatter.format(calendar.getTime()));
+                    field.setText(DateCodec.formatEventDateTime(calendar.getTimeInMillis()));
                 },
                 calendar.get(Calendar.HOUR_OF_DAY),
                 calendar.get(Calendar.MINUTE),
@@ -429,11 +424,12 @@ public class EditEventActivity extends AppCompatActivity {
             return;
         }
 
+        // Same encoding as CreateEventActivity and the user's gender field
         final int genderCode;
         int selectedId = genderGroup.getCheckedRadioButtonId();
-        if (selectedId == R.id.male) genderCode = 0;
-        else if (selectedId == R.id.female) genderCode = 1;
-        else genderCode = 2;
+        if (selectedId == R.id.male) genderCode = Event.GENDER_MALE;
+        else if (selectedId == R.id.female) genderCode = Event.GENDER_FEMALE;
+        else genderCode = Event.GENDER_ANY;
 
         db.collection("events")
                 .whereEqualTo("eventID", eventID)
@@ -458,6 +454,7 @@ public class EditEventActivity extends AppCompatActivity {
                         update.put("pax", Integer.parseInt(paxNum));
                         update.put("description", desc);
                         update.put("genderSpec", genderCode);
+                        update.putAll(EventCodec.timeFields(start, end));
                         if (selectedImageResId != 0 && selectedImageName != null) {
                             update.put("imageName", selectedImageName);
                         }
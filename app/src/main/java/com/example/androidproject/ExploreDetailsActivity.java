@@ -6,6 +6,8 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.androidproject.data.AttendeeCountService;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
 public class ExploreDetailsActivity extends AppCompatActivity {
@@ -54,6 +56,13 @@ public class ExploreDetailsActivity extends AppCompatActivity {
                 description : "No description available."));
         tvCapacity.setText("Attendees: " + currentAttendees + " / " + pax);
 
+        // Refresh the count from the shared cache (no query if the feed fetched it recently)
+        String eventID = getIntent().getStringExtra("eventID");
+        if (eventID != null) {
+            AttendeeCountService.getInstance().getCount(eventID, count ->
+                    tvCapacity.setText("Attendees: " + count + " / " + pax));
+        }
+
         // --- Load Local Drawable Image by Name ---
         int resId = 0;
         if (imageName != null && !imageName.trim().isEmpty()) {
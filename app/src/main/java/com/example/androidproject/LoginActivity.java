@@ -14,6 +14,9 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.data.UserProfileCache;
+import com.example.androidproject.model.UserProfile;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseAuth;
@@ -67,7 +70,7 @@ public class LoginActivity extends AppCompatActivity {
     @Override
     protected void onStart() {
         super.onStart();
-        mAuth.signOut(); // force logout
+        SessionIdentity.getInstance(this).signOut(); // force logout
     }
 
     private void handleForgotPassword() {
@@ -246,6 +249,7 @@ public class LoginActivity extends AppCompatActivity {
                 .addOnSuccessListener(adminDoc -> {
                     if (adminDoc.exists()) {
                         Log.d("LoginDebug", "Admin document found, redirecting to AdminProfileActivity");
+                        SessionIdentity.getInstance(this).saveAdmin(uid, adminDoc.getString("adminID"));
                         Intent intent = new Intent(LoginActivity.this, AdminProfileActivity.class);
                         // destroy login page and set the directed page as a new root
                         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -258,6 +262,9 @@ public class LoginActivity extends AppCompatActivity {
                                 .addOnSuccessListener(userDoc -> {
                                     if (userDoc.exists()) {
                                         Log.d("LoginDebug", "User document found, redirecting to UserExploreActivity");
+                                        SessionIdentity.getInstance(this).saveUser(uid, userDoc.getString("userID"));
+                                        SessionIdentity.getInstance(this).saveGender(userDoc.getLong("gender"));
+                                        UserProfileCache.getInstance().put(UserProfile.decode(userDoc));
                                         // User detected -> Go to UserExploreActivity
                                         Intent intent = new Intent(LoginActivity.this, UserExploreActivity.class);
                                         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -268,7 +275,7 @@ public class LoginActivity extends AppCompatActivity {
                                         Toast.makeText(LoginActivity.this,
                                                 "Account exists but no profile found. Please contact support.",
                                                 Toast.LENGTH_LONG).show();
-                                        mAuth.signOut();
+                                        SessionIdentity.getInstance(this).signOut();
                                     }
                                 })
                                 .addOnFailureListener(e -> {
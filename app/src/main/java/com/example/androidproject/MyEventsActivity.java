@@ -4,25 +4,36 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.androidproject.data.AttendeeCounterBackfill;
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
+import com.example.androidproject.ui.EventDiff;
+import com.example.androidproject.ui.StableIds;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.AggregateQuery;
-import com.google.firebase.firestore.AggregateQuerySnapshot;
-import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MyEventsActivity extends AppCompatActivity {
 
     private FirebaseFirestore db;
-    private LinearLayout eventsContainer;
+    private MyEventsAdapter adapter;
+    private ListenerRegistration eventsRegistration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,9 +41,12 @@ public class MyEventsActivity extends AppCompatActivity {
         setContentView(R.layout.activity_my_events);
 
         db = FirebaseFirestore.getInstance();
-        eventsContainer = findViewById(R.id.events_container);
 
-        loadEvents();
+        // Cards are inflated only for rows on screen and recycled while scrolling
+        RecyclerView recyclerView = findViewById(R.id.recycler_my_events);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new MyEventsAdapter();
+        recyclerView.setAdapter(adapter);
 
         BottomNavigationView bottomNav = findViewById(R.id.bottom_navigation);
         bottomNav.setSelectedItemId(R.id.nav_my_events);
@@ -54,95 +68,154 @@ public class MyEventsActivity extends AppCompatActivity {
         });
     }
 
-    private void loadEvents() {
-        String adminUid = FirebaseAuth.getInstance().getCurrentUser().getUid();
-
-        db.collection("admin")
-                .document(adminUid)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc.exists()) {
-                        String adminID = doc.getString("adminID");
-
-                        if (adminID != null) {
-                            db.collection("events")
-                                    .whereEqualTo("adminID", adminID)
-                                    .get()
-                                    .addOnSuccessListener(querySnapshot -> {
-                                        eventsContainer.removeAllViews();
-
-                                        if (querySnapshot.isEmpty()) {
-                                            Toast.makeText(this, "No events found", Toast.LENGTH_SHORT).show();
-                                            return;
-                                        }
-
-                                        LayoutInflater inflater = LayoutInflater.from(this);
-
-                                        for (QueryDocumentSnapshot eventDoc : querySnapshot) {
-                                            View eventCard = inflater.inflate(R.layout.item_event_card, eventsContainer, false);
-
-                                            TextView name = eventCard.findViewById(R.id.tvEventName);
-                                            TextView venue = eventCard.findViewById(R.id.tvVenue);
-                                            TextView startEnd = eventCard.findViewById(R.id.tvStartEndTime);
-                                            TextView paxCount = eventCard.findViewById(R.id.tvPax);
-                                            Button viewBtn = eventCard.findViewById(R.id.btnViewList);
-                                            Button editBtn = eventCard.findViewById(R.id.btnEditEvent);
-
-                                            String eventName = eventDoc.getString("eventName");
-                                            String eventVenue = eventDoc.getString("venue");
-                                            String eventStart = eventDoc.getString("startDateTime");
-                                            String eventEnd = eventDoc.getString("endDateTime");
-                                            String eventID = eventDoc.getString("eventID");
-                                            Long maxPax = eventDoc.getLong("pax");
-
-                                            name.setText(eventName != null ? eventName : "Unnamed Event");
-                                            venue.setText(eventVenue != null ? "Venue: " + eventVenue : "Venue: N/A");
-                                            if (eventStart != null && eventEnd != null) {
-                                                startEnd.setText(eventStart + " - " + eventEnd);
-                                            } else {
-                                                startEnd.setText("Date/time not set");
-                                            }
-
-                                            if (eventID != null) {
-                                                AggregateQuery countQuery = db.collection("attendance")
-                                                        .whereEqualTo("eventID", eventID)
-                                                        .count();
-
-                                                countQuery.get(AggregateSource.SERVER)
-                                                        .addOnSuccessListener((AggregateQuerySnapshot snapshot) -> {
-                                                            long count = snapshot.getCount();
-                                                            long totalPax = maxPax != null ? maxPax : 0;
-                                                            paxCount.setText(count + " / " + totalPax);
-                                                        })
-                                                        .addOnFailureListener(e ->
-                                                                paxCount.setText("0 / " + (maxPax != null ? maxPax : 0)));
-
-                                            }
-
-
-                                            viewBtn.setOnClickListener(v -> {
-                                                Intent intent = new Intent(MyEventsActivity.this, ViewListActivity.class);
-                                                intent.putExtra("eventID", eventID);
-                                                startActivity(intent);
-                                            });
-
-                                            editBtn.setOnClickListener(v -> {
-                                                Intent intent = new Intent(MyEventsActivity.this, EditEventActivity.class);
-                                                intent.putExtra("eventID", eventID);
-                                                startActivity(intent);
-                                            });
-
-                                            eventsContainer.addView(eventCard);
-                                        }
-                                    })
-                                    .addOnFailureListener(e ->
-                                            Toast.makeText(this, "Failed to load events: " + e.getMessage(), Toast.LENGTH_SHORT).show());
-                        } else {
-                            Toast.makeText(this, "Admin ID not found in record.", Toast.LENGTH_SHORT).show();
+    @Override
+    protected void onStart() {
+        super.onStart();
+        listenForEvents();
+    }
+
+    @Override
+    protected void onStop() {
+        // Live only while visible; coming back re-attaches and the diff rebinds only what changed
+        if (eventsRegistration != null) {
+            eventsRegistration.remove();
+            eventsRegistration = null;
+        }
+        super.onStop();
+    }
+
+    /**
+     * One listener on the admin's events. Attendee counts come from each event's maintained
+     * currentAttendees counter, so every count arrives with the events in the same round trip
+     * and later joins, leaves and removals stream in as they happen. The counters are shown
+     * as read and never fed into AttendeeCountService, whose cache holds only aggregate counts.
+     */
+    private void listenForEvents() {
+        SessionIdentity.getInstance(this).withAdminID(adminID -> {
+            if (adminID == null) {
+                Toast.makeText(this, "Admin ID not found in record.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            if (eventsRegistration != null || isFinishing()) return;
+            // Counters written before joins and leaves were transactional may be off; the
+            // listener picks up the repaired values
+            AttendeeCounterBackfill.runOnce(this, adminID);
+
+            eventsRegistration = db.collection("events")
+                    .whereEqualTo("adminID", adminID)
+                    .addSnapshotListener((querySnapshot, e) -> {
+                        if (e != null) {
+                            Toast.makeText(this, "Failed to load events: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+                        if (querySnapshot == null) return;
+
+                        boolean firstLoad = adapter.getCurrentList().isEmpty();
+                        List<Event> events = new ArrayList<>();
+                        for (QueryDocumentSnapshot eventDoc : querySnapshot) {
+                            events.add(EventCodec.decode(eventDoc));
+                        }
+                        adapter.submitList(events);
+
+                        if (events.isEmpty() && firstLoad && !querySnapshot.getMetadata().isFromCache()) {
+                            Toast.makeText(this, "No events found", Toast.LENGTH_SHORT).show();
                         }
-                    }
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed to fetch admin info: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+                    });
+        });
+    }
+
+    /**Admin's event cards; lists are diffed off the main thread*/
+    private class MyEventsAdapter extends ListAdapter<Event, MyEventsAdapter.EventCardHolder> {
+        private final StableIds stableIds = new StableIds();
+
+        MyEventsAdapter() {
+            super(EventDiff.CALLBACK);
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return stableIds.idFor(getItem(position).getId());
+        }
+
+        @NonNull
+        @Override
+        public EventCardHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_event_card, parent, false);
+            return new EventCardHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull EventCardHolder holder, int position) {
+            holder.bind(getItem(position));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull EventCardHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.contains(EventDiff.PAYLOAD_CAPACITY)) {
+                holder.bindCapacity(getItem(position));
+            } else {
+                onBindViewHolder(holder, position);
+            }
+        }
+
+        class EventCardHolder extends RecyclerView.ViewHolder {
+            TextView name, venue, startEnd, paxCount;
+            Button viewBtn, editBtn;
+
+            EventCardHolder(@NonNull View itemView) {
+                super(itemView);
+                name = itemView.findViewById(R.id.tvEventName);
+                venue = itemView.findViewById(R.id.tvVenue);
+                startEnd = itemView.findViewById(R.id.tvStartEndTime);
+                paxCount = itemView.findViewById(R.id.tvPax);
+                viewBtn = itemView.findViewById(R.id.btnViewList);
+                editBtn = itemView.findViewById(R.id.btnEditEvent);
+
+                // Listeners look up the row's current item, so recycled cards never act on a stale event
+                viewBtn.setOnClickListener(v -> {
+                    Event event = currentEvent();
+                    if (event == null) return;
+                    Intent intent = new Intent(MyEventsActivity.this, ViewListActivity.class);
+                    intent.putExtra("eventID", event.getEventID());
+                    intent.putExtra("eventDocId", event.getId());
+                    startActivity(intent);
+                });
+
+                editBtn.setOnClickListener(v -> {
+                    Event event = currentEvent();
+                    if (event == null) return;
+                    Intent intent = new Intent(MyEventsActivity.this, EditEventActivity.class);
+                    intent.putExtra("eventID", event.getEventID());
+                    startActivity(intent);
+                });
+            }
+
+            private Event currentEvent() {
+                int position = getBindingAdapterPosition();
+                return position != RecyclerView.NO_POSITION ? getItem(position) : null;
+            }
+
+            void bind(Event event) {
+                String eventName = event.getEventName();
+                String eventVenue = event.getVenue();
+                String eventStart = event.getStartDateTime();
+                String eventEnd = event.getEndDateTime();
+
+                name.setText(eventName != null ? eventName : "Unnamed Event");
+                venue.setText(eventVenue != null ? "Venue: " + eventVenue : "Venue: N/A");
+                if (eventStart != null && eventEnd != null) {
+                    startEnd.setText(eventStart + " - " + eventEnd);
+                } else {
+                    startEnd.setText("Date/time not set");
+                }
+
+                bindCapacity(event);
+            }
+
+            void bindCapacity(Event event) {
+                paxCount.setText(event.getCurrentAttendees() + " / " + event.getPax());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,9 @@ package com.example.androidproject;
 import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.TextUtils;
-import android.util.Log;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,23 +19,50 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.androidproject.ai.AIRecommendationManager;
+import com.example.androidproject.data.AttendanceService;
+import com.example.androidproject.data.AttendeeCountService;
+import com.example.androidproject.data.CatalogMigrations;
+import com.example.androidproject.data.EventFeedPager;
+import com.example.androidproject.data.EventSearchIndex;
+import com.example.androidproject.data.JoinedEventsIndex;
+import com.example.androidproject.data.JoinedEventsLoader;
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.data.TimetableDiskCache;
+import com.example.androidproject.data.TimetableStore;
+import com.example.androidproject.data.UserProfileCache;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
+import com.example.androidproject.model.UserProfile;
+import com.example.androidproject.reminders.ReminderScheduler;
+import com.example.androidproject.ui.EventDiff;
+import com.example.androidproject.ui.StableIds;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**Main activity for users to explore and browse events*/
 public class UserExploreActivity extends AppCompatActivity {
 
+    // Feed paging
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGES = 5;
+    private static final int PREFETCH_DISTANCE = 5;
+
     // UI components
     private EditText searchInput;
     private Button btnSearch, btnAIRecommendations;
@@ -42,11 +70,22 @@ public class UserExploreActivity extends AppCompatActivity {
 
     private FirebaseFirestore db;
     private FirebaseAuth mAuth;
+    private AttendeeCountService attendeeCounts;
+    private JoinedEventsIndex joinedIndex;
+    private final JoinedEventsIndex.Listener joinedListener = () -> adapter.refreshJoinState();
+    private TimetableStore timetable;
+    private final TimetableStore.Listener timetableListener = () -> adapter.refreshConflicts();
 
     // Data management
-    private ArrayList<Event> eventList;
+    private final HashMap<String, Event> catalog = new HashMap<>(); // loaded pages keyed by doc id
+    private EventFeedPager feedPager;
+    private final EventSearchIndex searchIndex = new EventSearchIndex();
     private EventAdapter adapter;
     private int currentUserGender = -1; // -1 = not loaded, 0 = female, 1 = male
+    private int feedGender = -1; // gender the running feed was started for, -1 = unknown
+    private CatalogMigrations.Flags migrations; // null until read; decides which filters the server applies
+    private boolean loadingMigrations = false;
+    private boolean feedByTime = false; // the running feed is filtered and ordered by end time on the server
     private String userDescription = "";
 
     // AI functionality
@@ -65,6 +104,9 @@ public class UserExploreActivity extends AppCompatActivity {
         // Initialize Firebase services
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        attendeeCounts = AttendeeCountService.getInstance();
+        joinedIndex = JoinedEventsIndex.getInstance();
+        timetable = TimetableStore.getInstance();
         aiRecommendationManager = new AIRecommendationManager(this);
 
         // Set up UI components
@@ -72,11 +114,39 @@ public class UserExploreActivity extends AppCompatActivity {
         setupRecyclerView();
         setupBottomNavigation();
 
+        // Keep join buttons in sync with the session's attendance set
+        joinedIndex.addListener(joinedListener);
+        joinedIndex.start(this);
+
+        // Conflict badges are checked against the local timetable
+        timetable.addListener(timetableListener);
+        loadTimetableIfNeeded();
+
+        // Gender remembered at login lets the filtered feed start before the profile read returns
+        currentUserGender = SessionIdentity.getInstance(this).getGender();
+        if (currentUserGender != -1) startEventFeed();
+
         // Load user data and events
         loadCurrentUserProfile();
 
         // Set up button click listeners
-        btnSearch.setOnClickListener(v -> searchEvents());
+        btnSearch.setOnClickListener(v -> searchEvents(true));
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // The index is local, so results can follow the user's typing
+                if (showingAIRecommendations) return;
+                searchEvents(false);
+                // Paging was paused while a search was showing
+                if (!isSearching()) recyclerView.post(UserExploreActivity.this::checkPrefetch);
+            }
+        });
         btnAIRecommendations.setOnClickListener(v -> toggleAIRecommendations());
     }
 
@@ -91,9 +161,24 @@ public class UserExploreActivity extends AppCompatActivity {
     /**Set up RecyclerView with layout manager and adapter*/
     private void setupRecyclerView() {
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        eventList = new ArrayList<>();
-        adapter = new EventAdapter(eventList);
+        adapter = new EventAdapter();
         recyclerView.setAdapter(adapter);
+
+        // Fetch the next page before the user reaches the end of what is loaded
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                checkPrefetch();
+            }
+        });
+    }
+
+    private void checkPrefetch() {
+        // Search filters what is loaded; it must not page in more of the catalog
+        if (feedPager == null || showingAIRecommendations || isSearching()) return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        feedPager.onVisibleRange(layoutManager.findFirstVisibleItemPosition(),
+                layoutManager.findLastVisibleItemPosition(), adapter.getItemCount());
     }
 
     private void setupBottomNavigation() {
@@ -121,7 +206,8 @@ public class UserExploreActivity extends AppCompatActivity {
     private void toggleAIRecommendations() {
         if (showingAIRecommendations) {
             // Switch back to all events
-            loadAllEvents();
+            adapter.setShowBadge(false);
+            searchEvents(false);
             btnAIRecommendations.setText("✨ Get AI Recommendations");
             btnAIRecommendations.setBackgroundTintList(ContextCompat.getColorStateList(this, R.color.colorPrimary));
             showingAIRecommendations = false;
@@ -163,6 +249,8 @@ public class UserExploreActivity extends AppCompatActivity {
                         // Extract user gender
                         Long gender = doc.getLong("gender");
                         currentUserGender = (gender != null) ? gender.intValue() : -1;
+                        SessionIdentity.getInstance(this).saveGender(gender);
+                        UserProfileCache.getInstance().put(UserProfile.decode(doc));
 
                         // Extract user description for AI recommendations
                         userDescription = doc.getString("description");
@@ -170,14 +258,12 @@ public class UserExploreActivity extends AppCompatActivity {
 
                         // Update AI button state based on description availability
                         updateAIButtonState();
-                        loadAllEvents();
-                    } else {
-                        loadAllEvents();
                     }
+                    startEventFeed();
                 })
                 .addOnFailureListener(e -> {
                     Toast.makeText(this, "Failed to load user profile", Toast.LENGTH_SHORT).show();
-                    loadAllEvents(); // Load events even if profile fails
+                    startEventFeed(); // Load events even if profile fails
                 });
     }
 
@@ -195,36 +281,132 @@ public class UserExploreActivity extends AppCompatActivity {
         }
     }
 
-    /**Load all events from Firestore and display them*/
-    private void loadAllEvents() {
-        db.collection("events").get()
-                .addOnSuccessListener(querySnapshot -> {
-                    eventList.clear();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        Event event = parseEventFromDocument(doc);
-                        if (event != null && shouldShowEvent(event)) {
-                            // Initialize with 0 attendees, then fetch actual count
-                            event.setCurrentAttendees(0);
-                            eventList.add(event);
-                            fetchLiveAttendeeCount(event);
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to load events", Toast.LENGTH_SHORT).show();
-                });
+    /**Start the paged event feed of eligible events, ending soonest first once the catalog allows it*/
+    private void startEventFeed() {
+        if (migrations == null) {
+            if (loadingMigrations) return;
+            loadingMigrations = true;
+            CatalogMigrations.load(flags -> {
+                migrations = flags;
+                if (!isFinishing()) startEventFeed();
+            });
+            return;
+        }
+        if (feedPager != null) {
+            if (feedGender == currentUserGender) return;
+            // The profile disagreed with the gender remembered at login; restart with the right filter
+            feedPager.stop();
+            catalog.clear();
+            searchIndex.clear();
+        }
+
+        feedGender = currentUserGender;
+        feedByTime = isMigrated(CatalogMigrations.EVENT_TIMES);
+        // Each attached page is a live listener, so admin edits appear without a refresh
+        feedPager = new EventFeedPager(eligibleEvents(), PAGE_SIZE, MAX_PAGES, PREFETCH_DISTANCE, new EventFeedPager.Listener() {
+            @Override
+            public void onFeedChanged(List<QueryDocumentSnapshot> upserts, List<String> removedIds) {
+                applyEventChanges(upserts, removedIds);
+            }
+
+            @Override
+            public void onFeedError(Exception e) {
+                Toast.makeText(UserExploreActivity.this, "Failed to load events", Toast.LENGTH_SHORT).show();
+            }
+        });
+        feedPager.start();
     }
 
-    /**Fetch real-time attendee count for a specific event from attendance collection*/
-    private void fetchLiveAttendeeCount(Event event) {
-        db.collection("attendance")
-                .whereEqualTo("eventID", event.getEventID())
-                .get()
-                .addOnSuccessListener(snapshot -> {
-                    event.setCurrentAttendees(snapshot.size());
-                    adapter.notifyDataSetChanged();
-                });
+    private void applyEventChanges(List<QueryDocumentSnapshot> upserts, List<String> removedIds) {
+        List<Event> needCounts = new ArrayList<>();
+
+        for (String id : removedIds) {
+            catalog.remove(id);
+            searchIndex.remove(id);
+        }
+        // Pages the feed evicted are not reported; drop their events here
+        Set<String> attached = new HashSet<>(feedPager.orderedIds());
+        for (String id : new ArrayList<>(catalog.keySet())) {
+            if (!attached.contains(id)) {
+                catalog.remove(id);
+                searchIndex.remove(id);
+            }
+        }
+
+        for (QueryDocumentSnapshot doc : upserts) {
+            String id = doc.getId();
+            Event event = EventCodec.decode(doc);
+            if (event == null || !shouldShowEvent(event)) {
+                catalog.remove(id);
+                searchIndex.remove(id);
+                continue;
+            }
+
+            // Prefer the live count we already know over the stored counter
+            Integer cached = attendeeCounts.peek(event.getEventID());
+            if (cached != null) {
+                event.setCurrentAttendees(cached);
+            } else {
+                needCounts.add(event);
+            }
+            catalog.put(id, event);
+            indexEvent(event);
+        }
+
+        if (!showingAIRecommendations) searchEvents(false); // Re-apply any search text
+        if (!needCounts.isEmpty()) fetchLiveAttendeeCounts(needCounts);
+
+        // A short first page may not fill the screen, so no scroll would ever ask for more
+        recyclerView.post(this::checkPrefetch);
+    }
+
+    /**Fetch live attendee counts for a batch of events; only rows whose count changed rebind*/
+    private void fetchLiveAttendeeCounts(List<Event> events) {
+        List<String> eventIDs = new ArrayList<>();
+        for (Event event : events) {
+            eventIDs.add(event.getEventID());
+        }
+        attendeeCounts.getCounts(eventIDs, this::applyCounts);
+    }
+
+    /**Swap in copies of events whose count changed and republish the list*/
+    private void applyCounts(Map<String, Integer> counts) {
+        boolean changed = false;
+        for (Map.Entry<String, Event> entry : catalog.entrySet()) {
+            Event event = entry.getValue();
+            Integer count = counts.get(event.getEventID());
+            if (count != null && count != event.getCurrentAttendees()) {
+                Event updated = event.copy();
+                updated.setCurrentAttendees(count);
+                entry.setValue(updated);
+                changed = true;
+            }
+        }
+        if (changed && !showingAIRecommendations) searchEvents(false);
+    }
+
+    /**
+     * Events the user may see, filtered and ordered by the server as far as the completed catalog
+     * migrations allow; shouldShowEvent() still applies to whatever the query returns.
+     */
+    private Query eligibleEvents() {
+        Query query = db.collection("events");
+        // Until every genderSpec is numeric, a whereIn would hide legacy events; filter on the client instead
+        if (currentUserGender != -1 && isMigrated(CatalogMigrations.GENDER_SPEC)) {
+            query = query.whereIn("genderSpec", Arrays.asList(Event.GENDER_ANY, currentUserGender));
+        }
+        // Until every event carries endEpochMs, a range on it would hide legacy events; the
+        // results stay unordered and searchEvents() sorts them by start instead.
+        // The range is on the end, so multi-day events already under way stay listed
+        if (isMigrated(CatalogMigrations.EVENT_TIMES)) {
+            query = query.whereGreaterThanOrEqualTo(EventCodec.FIELD_END_EPOCH_MS, System.currentTimeMillis())
+                    .orderBy(EventCodec.FIELD_END_EPOCH_MS);
+        }
+        return query;
+    }
+
+    private boolean isMigrated(String migration) {
+        return migrations != null && migrations.isDone(migration);
     }
 
     /**Get AI-powered personalized event recommendations*/
@@ -237,10 +419,15 @@ public class UserExploreActivity extends AppCompatActivity {
         showLoading("Analyzing your interests...");
         btnAIRecommendations.setEnabled(false);
 
-        aiRecommendationManager.getPersonalizedRecommendations(userDescription, new AIRecommendationManager.RecommendationCallback() {
+        aiRecommendationManager.getPersonalizedRecommendations(eligibleEvents(), userDescription, new AIRecommendationManager.RecommendationCallback() {
             @Override
-            public void onSuccess(List<Event> recommendedEvents) {
+            public void onSuccess(List<Event> candidates) {
                 runOnUiThread(() -> {
+                    List<Event> recommendedEvents = new ArrayList<>();
+                    for (Event event : candidates) {
+                        if (shouldShowEvent(event)) recommendedEvents.add(event);
+                    }
+
                     hideLoading();
                     showingAIRecommendations = true;
                     btnAIRecommendations.setEnabled(true);
@@ -248,13 +435,12 @@ public class UserExploreActivity extends AppCompatActivity {
                     btnAIRecommendations.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, R.color.green));
 
                     // Update event list with AI recommendations
-                    eventList.clear();
-                    eventList.addAll(recommendedEvents);
-                    adapter.notifyDataSetChanged();
+                    adapter.setShowBadge(true);
+                    adapter.submitList(new ArrayList<>(recommendedEvents));
 
                     if (recommendedEvents.isEmpty()) {
                         Toast.makeText(UserExploreActivity.this, "No specific recommendations found", Toast.LENGTH_LONG).show();
-                        loadAllEvents(); // Fallback to all events
+                        searchEvents(false); // Fallback to all events
                     } else {
                         Toast.makeText(UserExploreActivity.this, "AI found " + recommendedEvents.size() + " recommendations!", Toast.LENGTH_SHORT).show();
                     }
@@ -268,158 +454,127 @@ public class UserExploreActivity extends AppCompatActivity {
                     btnAIRecommendations.setEnabled(true);
                     showingAIRecommendations = false;
                     Toast.makeText(UserExploreActivity.this, "AI recommendations unavailable", Toast.LENGTH_SHORT).show();
-                    loadAllEvents(); // Fallback to all events
+                    searchEvents(false); // Fallback to all events
                 });
             }
         });
     }
 
-    //return event object
-    private Event parseEventFromDocument(QueryDocumentSnapshot doc) {
-        Event event = new Event();
-        try {
-            // Set basic event properties
-            event.setId(doc.getId());
-            event.setEventID(doc.getString("eventID"));
-            event.setAdminID(doc.getString("adminID"));
-            event.setDescription(doc.getString("description"));
-            event.setEndDateTime(doc.getString("endDateTime"));
-            event.setEventName(doc.getString("eventName"));
-            event.setStartDateTime(doc.getString("startDateTime"));
-            event.setVenue(doc.getString("venue"));
-            event.setImageName(doc.getString("imageName"));
-
-            // Handle numeric fields with null checks
-            Long genderSpec = doc.getLong("genderSpec");
-            event.setGenderSpec(genderSpec != null ? genderSpec.intValue() : 2); // Default to "Any"
-
-            Long currentAttendees = doc.getLong("currentAttendees");
-            event.setCurrentAttendees(currentAttendees != null ? currentAttendees.intValue() : 0);
-
-            Long pax = doc.getLong("pax");
-            event.setPax(pax != null ? pax.intValue() : 0);
-
-            return event;
-        } catch (Exception e) {
-            Log.e("UserExplore", "Error parsing event document: " + e.getMessage());
-            return null;
-        }
-    }
-
-    /** Check if event should be shown based on gender restrictions*/
+    /** Check if event should be shown based on gender restrictions and whether it has ended*/
     private boolean shouldShowEvent(Event event) {
+        // An event whose end is unknown stays listed
+        if (event.getEndEpochMs() != Event.NO_TIME && event.getEndEpochMs() < System.currentTimeMillis()) return false;
         // Show event if: no gender restriction OR user gender not loaded OR gender matches
-        if (event.getGenderSpec() == 2 || currentUserGender == -1) {
-            return true;
-        }
-        return event.getGenderSpec() == currentUserGender;
+        return event.isOpenTo(currentUserGender);
     }
 
-    /**Search events based on keyword in event name, venue, or description*/
-    private void searchEvents() {
-        String keyword = searchInput.getText().toString().trim().toLowerCase();
-        if (TextUtils.isEmpty(keyword)) {
-            loadAllEvents(); // Show all events if search is empty
-            return;
-        }
-
-        db.collection("events").get()
-                .addOnSuccessListener(querySnapshot -> {
-                    eventList.clear();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        Event event = parseEventFromDocument(doc);
-                        if (event != null && shouldShowEvent(event) && matchesSearch(event, keyword)) {
-                            eventList.add(event);
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
+    private static long startKey(Event event) {
+        return event.getStartEpochMs() != Event.NO_TIME ? event.getStartEpochMs() : Long.MAX_VALUE;
+    }
 
-                    if (eventList.isEmpty()) {
-                        Toast.makeText(this, "No events found for: " + keyword, Toast.LENGTH_SHORT).show();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Search failed", Toast.LENGTH_SHORT).show();
-                });
+    private void indexEvent(Event event) {
+        searchIndex.put(event.getId(), event.getEventName(), event.getVenue(), event.getDescription());
     }
 
-    /**Check if event matches search keyword*/
-    private boolean matchesSearch(Event event, String keyword) {
-        return (event.getEventName() != null && event.getEventName().toLowerCase().contains(keyword)) ||
-                (event.getVenue() != null && event.getVenue().toLowerCase().contains(keyword)) ||
-                (event.getDescription() != null && event.getDescription().toLowerCase().contains(keyword));
+    private boolean isSearching() {
+        return !TextUtils.isEmpty(searchInput.getText().toString().trim());
     }
 
+    /**
+     * Search the loaded pages by words in event name, venue, or description (prefix match).
+     * Only events already loaded are searched, as the search hint says; searching never loads
+     * more pages.
+     */
+    private void searchEvents(boolean reportEmpty) {
+        String keyword = searchInput.getText().toString().trim();
+
+        Set<String> matches = TextUtils.isEmpty(keyword) ? null : searchIndex.search(keyword);
+        ArrayList<Event> results = new ArrayList<>();
+        List<String> orderedIds = feedPager != null ? feedPager.orderedIds() : new ArrayList<>();
+        for (String id : orderedIds) {
+            Event event = catalog.get(id);
+            // Show all loaded events if search is empty
+            if (event != null && (matches == null || matches.contains(id))) results.add(event);
+        }
+        // Without the server's ordering, soonest start first; unknown starts last
+        if (!feedByTime) Collections.sort(results, (a, b) -> Long.compare(startKey(a), startKey(b)));
+        adapter.submitList(results);
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        if (!showingAIRecommendations) {
-            loadAllEvents(); // Reload events unless showing AI recommendations
+        if (reportEmpty && results.isEmpty()) {
+            Toast.makeText(this, "No loaded events found for: " + keyword, Toast.LENGTH_SHORT).show();
         }
     }
 
-    /**Event data model representing an event in the system*/
-    public static class Event {
-        private String id;
-        private String eventID;
-        private String adminID;
-        private String description;
-        private String endDateTime;
-        private String eventName;
-        private int genderSpec;
-        private String startDateTime;
-        private String venue;
-        private int currentAttendees;
-        private int pax;
-        private String imageName;
-
-        public Event() {}
-
-        // Getter and setter methods for all properties
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-
-        public String getEventID() { return eventID; }
-        public void setEventID(String eventID) { this.eventID = eventID; }
-
-        public String getAdminID() { return adminID; }
-        public void setAdminID(String adminID) { this.adminID = adminID; }
 
-        public String getDescription() { return description; }
-        public void setDescription(String description) { this.description = description; }
-
-        public String getEndDateTime() { return endDateTime; }
-        public void setEndDateTime(String endDateTime) { this.endDateTime = endDateTime; }
+    /**Fill the session timetable once so conflict checks have something to compare against*/
+    private void loadTimetableIfNeeded() {
+        if (timetable.isSynced()) return;
+
+        SessionIdentity.getInstance(this).withUserID(customUserID -> {
+            if (customUserID == null || timetable.isSynced()) return;
+            // The on-disk copy gives badges straight away; the network load then corrects it
+            TimetableDiskCache.getInstance(this).restore(customUserID, null);
+            // Reminders follow the store from here on, joins included
+            ReminderScheduler.getInstance(this).attach(customUserID);
+            new JoinedEventsLoader().load(customUserID, new JoinedEventsLoader.Callback() {
+                @Override
+                public void onLoaded(List<Event> events, boolean partial) {
+                    timetable.reconcile(events, partial);
+                }
 
-        public String getEventName() { return eventName; }
-        public void setEventName(String eventName) { this.eventName = eventName; }
+                @Override
+                public void onError(Exception e) {
+                    // Badges stay hidden; the timetable screen retries the load
+                }
+            });
+        });
+    }
 
-        public int getGenderSpec() { return genderSpec; }
-        public void setGenderSpec(int genderSpec) { this.genderSpec = genderSpec; }
+    @Override
+    protected void onDestroy() {
+        joinedIndex.removeListener(joinedListener);
+        timetable.removeListener(timetableListener);
+        if (feedPager != null) {
+            feedPager.stop();
+            feedPager = null;
+        }
+        super.onDestroy();
+    }
 
-        public String getStartDateTime() { return startDateTime; }
-        public void setStartDateTime(String startDateTime) { this.startDateTime = startDateTime; }
+    private static final Object PAYLOAD_JOIN_STATE = new Object();
+    private static final Object PAYLOAD_BADGE = new Object();
+    private static final Object PAYLOAD_CONFLICT = new Object();
 
-        public String getVenue() { return venue; }
-        public void setVenue(String venue) { this.venue = venue; }
+    /**RecyclerView adapter for displaying events; lists are diffed off the main thread*/
+    private class EventAdapter extends ListAdapter<Event, EventAdapter.EventViewHolder> {
+        private final StableIds stableIds = new StableIds();
+        private boolean showBadge = false;
 
-        public int getCurrentAttendees() { return currentAttendees; }
-        public void setCurrentAttendees(int currentAttendees) { this.currentAttendees = currentAttendees; }
+        EventAdapter() {
+            super(EventDiff.CALLBACK);
+            setHasStableIds(true);
+        }
 
-        public int getPax() { return pax; }
-        public void setPax(int pax) { this.pax = pax; }
+        @Override
+        public long getItemId(int position) {
+            return stableIds.idFor(getItem(position).getId());
+        }
 
-        public String getImageName() { return imageName; }
-        public void setImageName(String imageName) { this.imageName = imageName; }
-    }
+        /**Show or hide the AI badge on every row without a full rebind*/
+        void setShowBadge(boolean show) {
+            if (showBadge == show) return;
+            showBadge = show;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_BADGE);
+        }
 
-    /**RecyclerView adapter for displaying events*/
-    private class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
-        private final ArrayList<Event> events;
+        /**Re-evaluate join buttons after the joined-events set changed*/
+        void refreshJoinState() {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_JOIN_STATE);
+        }
 
-        EventAdapter(ArrayList<Event> events) {
-            this.events = events;
+        /**Re-evaluate conflict badges after the timetable changed*/
+        void refreshConflicts() {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_CONFLICT);
         }
 
         @NonNull
@@ -431,18 +586,26 @@ public class UserExploreActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-            Event event = events.get(position);
-            holder.bind(event);
+            holder.bind(getItem(position));
         }
 
         @Override
-        public int getItemCount() {
-            return events.size();
+        public void onBindViewHolder(@NonNull EventViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+
+            Event event = getItem(position);
+            if (payloads.contains(EventDiff.PAYLOAD_CAPACITY)) holder.bindCapacity(event);
+            if (payloads.contains(PAYLOAD_JOIN_STATE)) holder.bindJoinButton(event);
+            if (payloads.contains(PAYLOAD_BADGE)) holder.bindBadge();
+            if (payloads.contains(PAYLOAD_CONFLICT)) holder.bindConflict(event);
         }
 
         /**ViewHolder for event items*/
         class EventViewHolder extends RecyclerView.ViewHolder {
-            TextView tvEventName, tvVenue, tvDatetime, tvCapacity, tvAIRecBadge;
+            TextView tvEventName, tvVenue, tvDatetime, tvCapacity, tvAIRecBadge, tvConflictBadge;
             Button btnJoin;
 
             EventViewHolder(@NonNull View itemView) {
@@ -454,6 +617,22 @@ public class UserExploreActivity extends AppCompatActivity {
                 tvCapacity = itemView.findViewById(R.id.tv_event_capacity);
                 btnJoin = itemView.findViewById(R.id.btn_join);
                 tvAIRecBadge = itemView.findViewById(R.id.tv_ai_recommendation_badge);
+                tvConflictBadge = itemView.findViewById(R.id.tv_conflict_badge);
+
+                // Listeners look up the row's current item, so partial rebinds never leave them stale
+                btnJoin.setOnClickListener(v -> {
+                    Event event = currentEvent();
+                    if (event != null) joinEvent(event);
+                });
+                itemView.setOnClickListener(v -> {
+                    Event event = currentEvent();
+                    if (event != null) openEventDetails(event);
+                });
+            }
+
+            private Event currentEvent() {
+                int position = getBindingAdapterPosition();
+                return position != RecyclerView.NO_POSITION ? getItem(position) : null;
             }
 
             /**Bind event data to views*/
@@ -467,34 +646,58 @@ public class UserExploreActivity extends AppCompatActivity {
                 String endTime = event.getEndDateTime() != null ? event.getEndDateTime() : "Not set";
                 tvDatetime.setText("Start: " + startTime + "\nEnd: " + endTime);
 
-                // Display capacity
+                bindCapacity(event);
+                bindBadge();
+                bindConflict(event);
+            }
+
+            /**Display capacity; fullness decides the join button so it is refreshed too*/
+            void bindCapacity(Event event) {
                 tvCapacity.setText(event.getCurrentAttendees() + " / " + event.getPax());
+                bindJoinButton(event);
+            }
 
-                // Show AI recommendation badge if applicable
-                tvAIRecBadge.setVisibility(showingAIRecommendations ? View.VISIBLE : View.GONE);
+            /**Show AI recommendation badge if applicable*/
+            void bindBadge() {
+                tvAIRecBadge.setVisibility(showBadge ? View.VISIBLE : View.GONE);
+            }
+
+            /**Flag an overlap with the user's timetable; an in-memory tree lookup, no allocation*/
+            void bindConflict(Event event) {
+                Event clash = timetable.conflicts().firstConflict(event);
+                if (clash == null) {
+                    tvConflictBadge.setVisibility(View.GONE);
+                    return;
+                }
+                tvConflictBadge.setText("⚠ Clashes with " + (clash.getEventName() != null ? clash.getEventName() : "a joined event"));
+                tvConflictBadge.setVisibility(View.VISIBLE);
+            }
 
-                // Handle join button state
+            /**Handle join button state*/
+            void bindJoinButton(Event event) {
                 if (event.getCurrentAttendees() >= event.getPax()) {
                     // Event is full
                     btnJoin.setText("Full");
                     btnJoin.setEnabled(false);
                     btnJoin.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, android.R.color.darker_gray));
+                } else if (joinedIndex.isJoined(event.getEventID())) {
+                    // User has already joined
+                    btnJoin.setText("Joined");
+                    btnJoin.setEnabled(false);
+                    btnJoin.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, android.R.color.darker_gray));
                 } else {
-                    // Event has space - check if user already joined
-                    checkIfJoined(event, btnJoin);
+                    // User can join
+                    btnJoin.setText("Join");
+                    btnJoin.setEnabled(true);
+                    btnJoin.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, R.color.colorPrimary));
                 }
-
-                // Set up join button click listener
-                btnJoin.setOnClickListener(v -> joinEvent(event, btnJoin));
-
-                // Set up item click listener for event details
-                itemView.setOnClickListener(v -> openEventDetails(event));
             }
 
             /**Open event details screen*/
             private void openEventDetails(Event event) {
                 Intent intent = new Intent(UserExploreActivity.this, ExploreDetailsActivity.class);
                 // Pass all event data to details activity
+                intent.putExtra("eventID", event.getEventID());
                 intent.putExtra("eventName", event.getEventName());
                 intent.putExtra("venue", event.getVenue());
                 intent.putExtra("startDateTime", event.getStartDateTime());
@@ -507,74 +710,71 @@ public class UserExploreActivity extends AppCompatActivity {
             }
         }
 
-        /**Check if current user has already joined the event*/
-        private void checkIfJoined(Event event, Button joinButton) {
-            String firebaseUid = mAuth.getCurrentUser().getUid();
-
-            db.collection("user").document(firebaseUid).get()
-                    .addOnSuccessListener(userDoc -> {
-                        if (userDoc.exists()) {
-                            String customUserID = userDoc.getString("userID");
-                            if (customUserID == null) customUserID = firebaseUid; // Fallback to Firebase UID
-
-                            // Check attendance collection for user's registration
-                            db.collection("attendance")
-                                    .whereEqualTo("eventID", event.getEventID())
-                                    .whereEqualTo("userID", customUserID)
-                                    .get()
-                                    .addOnSuccessListener(querySnapshot -> {
-                                        if (!querySnapshot.isEmpty()) {
-                                            // User has already joined
-                                            joinButton.setText("Joined");
-                                            joinButton.setEnabled(false);
-                                            joinButton.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, android.R.color.darker_gray));
-                                        } else {
-                                            // User can join
-                                            joinButton.setText("Join");
-                                            joinButton.setEnabled(true);
-                                            joinButton.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, R.color.colorPrimary));
-                                        }
-                                    });
-                        }
-                    });
+        /**Warn about timetable overlaps before joining; joins straight away when there are none*/
+        private void joinEvent(Event event) {
+            List<Event> clashes = timetable.conflicts().conflictsWith(event);
+            if (clashes.isEmpty()) {
+                performJoin(event);
+                return;
+            }
+
+            StringBuilder message = new StringBuilder("This event overlaps with:\n");
+            for (Event clash : clashes) {
+                message.append("\n• ").append(clash.getEventName() != null ? clash.getEventName() : "Unnamed Event");
+                if (clash.getStartDateTime() != null) message.append(" (").append(clash.getStartDateTime()).append(")");
+            }
+            message.append("\n\nJoin anyway?");
+
+            new AlertDialog.Builder(UserExploreActivity.this)
+                    .setTitle("Schedule conflict")
+                    .setMessage(message.toString())
+                    .setPositiveButton("Join anyway", (dialog, which) -> performJoin(event))
+                    .setNegativeButton("Cancel", null)
+                    .show();
         }
 
         /**Handle event joining process*/
-        private void joinEvent(Event event, Button joinButton) {
-            String firebaseUid = mAuth.getCurrentUser().getUid();
-
-            db.collection("user").document(firebaseUid).get()
-                    .addOnSuccessListener(userDoc -> {
-                        if (!userDoc.exists()) return;
-
-                        String customUserID = userDoc.getString("userID");
-                        if (customUserID == null) return;
-
-                        // Create attendance record
-                        Map<String, Object> attendance = new HashMap<>();
-                        attendance.put("eventID", event.getEventID());
-                        attendance.put("userID", customUserID);
-
-                        // Add to attendance collection
-                        db.collection("attendance").add(attendance)
-                                .addOnSuccessListener(docRef -> {
-                                    // Update event attendee count
-                                    DocumentReference eventRef = db.collection("events").document(event.getId());
-                                    eventRef.update("currentAttendees", event.getCurrentAttendees() + 1)
-                                            .addOnSuccessListener(aVoid -> {
-                                                // Update local event object and UI
-                                                event.setCurrentAttendees(event.getCurrentAttendees() + 1);
-                                                joinButton.setText("Joined");
-                                                joinButton.setEnabled(false);
-                                                joinButton.setBackgroundTintList(ContextCompat.getColorStateList(UserExploreActivity.this, android.R.color.darker_gray));
-                                                notifyDataSetChanged(); // Refresh all items
-                                                Toast.makeText(UserExploreActivity.this, "Joined successfully!", Toast.LENGTH_SHORT).show();
-                                            });
-                                })
-                                .addOnFailureListener(e -> {
-                                    Toast.makeText(UserExploreActivity.this, "Failed to join", Toast.LENGTH_SHORT).show();
-                                });
-                    });
+        private void performJoin(Event event) {
+            SessionIdentity.getInstance(UserExploreActivity.this).withUserID(customUserID -> {
+                if (customUserID == null) return;
+
+                // Show the row as joined straight away; the index rolls back if the write fails
+                joinedIndex.markJoined(event.getEventID());
+
+                // One transaction: capacity check, keyed attendance row, atomic counter increment
+                AttendanceService.getInstance().join(event.getId(), event.getEventID(), customUserID,
+                        new AttendanceService.JoinCallback() {
+                            @Override
+                            public void onJoined(int newCount) {
+                                joinedIndex.settle(event.getEventID());
+                                // Slot the event into the local timetable without a reload
+                                Event joined = event.copy();
+                                joined.setCurrentAttendees(newCount);
+                                TimetableStore.getInstance().upsert(joined);
+                                // Update the affected row only
+                                applyCounts(Collections.singletonMap(event.getEventID(), newCount));
+                                Toast.makeText(UserExploreActivity.this, "Joined successfully!", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onAlreadyJoined() {
+                                joinedIndex.settle(event.getEventID());
+                                Toast.makeText(UserExploreActivity.this, "You have already joined this event", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onFull() {
+                                joinedIndex.settle(event.getEventID());
+                                Toast.makeText(UserExploreActivity.this, "Event is full", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                joinedIndex.settle(event.getEventID());
+                                Toast.makeText(UserExploreActivity.this, "Failed to join", Toast.LENGTH_SHORT).show();
+                            }
+                        });
+            });
         }
     }
 }
\ No newline at end of file
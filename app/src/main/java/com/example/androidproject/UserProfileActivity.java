@@ -22,6 +22,10 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
+import com.example.androidproject.data.AttendanceService;
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.data.UserProfileCache;
+import com.example.androidproject.model.UserProfile;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
@@ -160,6 +164,7 @@ public class UserProfileActivity extends AppCompatActivity {
                     if (documentSnapshot.exists()) {
                         Log.d("UserProfile", "User found in 'user' collection");
                         currentCollection = "user";
+                        UserProfileCache.getInstance().put(UserProfile.decode(documentSnapshot));
                         populateUserData(documentSnapshot);
                     } else {
                         db.collection("admin").document(currentUserId).get()
@@ -491,6 +496,7 @@ public class UserProfileActivity extends AppCompatActivity {
                     Log.d("UserProfile", "Profile image reference saved: " + imageName);
                     // Update original data
                     originalData.put("profilePic", imageName);
+                    cacheSavedProfile();
                 })
                 .addOnFailureListener(e -> {
                     Toast.makeText(this, "Failed to update profile image", Toast.LENGTH_SHORT).show();
@@ -512,7 +518,7 @@ public class UserProfileActivity extends AppCompatActivity {
     private void performFirebaseLogout() {
         try {
             Toast.makeText(this, "Logging out...", Toast.LENGTH_SHORT).show();
-            mAuth.signOut();
+            SessionIdentity.getInstance(this).logOut();
 
             if (mAuth.getCurrentUser() == null) {
                 redirectToLogin();
@@ -581,6 +587,11 @@ public class UserProfileActivity extends AppCompatActivity {
                     originalData.put("phone", phone);
                     originalData.put("description", description);
                     originalData.put("gender", (long) genderValue);
+                    SessionIdentity.getInstance(this).saveGender((long) genderValue);
+                    cacheSavedProfile();
+                    // Attendee search reads the name copied onto each attendance row
+                    String customUserID = SessionIdentity.getInstance(this).getUserID();
+                    if (customUserID != null) renameInAttendeeLists(customUserID, name);
 
                     if (!newPassword.isEmpty()) {
                         if (newPassword.length() < 6) {
@@ -599,6 +610,40 @@ public class UserProfileActivity extends AppCompatActivity {
                 });
     }
 
+    /**Let attendee lists show the profile as just saved rather than a cached older copy*/
+    private void cacheSavedProfile() {
+        String customUserID = SessionIdentity.getInstance(this).getUserID();
+        if (!"user".equals(currentCollection) || customUserID == null) return;
+        Object gender = originalData.get("gender");
+        UserProfileCache.getInstance().put(new UserProfile(customUserID,
+                (String) originalData.get("name"),
+                (String) originalData.get("email"),
+                (String) originalData.get("phone"),
+                (String) originalData.get("profilePic"),
+                gender instanceof Number ? ((Number) gender).longValue() : null));
+    }
+
+    /**Update the name on the user's attendance rows, offering a retry if that fails*/
+    private void renameInAttendeeLists(String customUserID, String name) {
+        AttendanceService.getInstance().renameAttendee(customUserID, name, new AttendanceService.RenameCallback() {
+            @Override
+            public void onRenamed() {
+                Log.d("UserProfile", "Attendance rows renamed");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (isFinishing()) return;
+                new AlertDialog.Builder(UserProfileActivity.this)
+                        .setTitle("Name not updated everywhere")
+                        .setMessage("Event organizers may not find you by your new name when searching attendees.")
+                        .setPositiveButton("Retry", (dialog, which) -> renameInAttendeeLists(customUserID, name))
+                        .setNegativeButton("Cancel", null)
+                        .show();
+            }
+        });
+    }
+
     private void updatePassword(String newPassword) {
         FirebaseUser user = mAuth.getCurrentUser();
         if (user != null) {
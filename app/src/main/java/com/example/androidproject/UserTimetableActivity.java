@@ -1,57 +1,90 @@
 package com.example.androidproject;
 
+import android.Manifest;
+import android.app.AlertDialog;
 import android.app.DatePickerDialog;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.res.ColorStateList;
+import android.graphics.Typeface;
+import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.GridLayout;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.androidproject.data.AttendanceService;
+import com.example.androidproject.data.JoinedEventsIndex;
+import com.example.androidproject.data.JoinedEventsLoader;
+import com.example.androidproject.data.SessionIdentity;
+import com.example.androidproject.data.TimetableDiskCache;
+import com.example.androidproject.data.TimetableStore;
+import com.example.androidproject.model.DateCodec;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.IcsWriter;
+import com.example.androidproject.reminders.ReminderScheduler;
+import com.example.androidproject.ui.EventDiff;
+import com.example.androidproject.ui.StableIds;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormatSymbols;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
+import java.util.List;
 
 public class UserTimetableActivity extends AppCompatActivity {
 
+    // View modes: the flat list with the date filter, or a week/month calendar over day buckets
+    private static final int MODE_LIST = 0;
+    private static final int MODE_WEEK = 1;
+    private static final int MODE_MONTH = 2;
+    private static final int MONTH_CELLS = 42; // six full weeks always cover a month
+
     private Button btnPickStartDate, btnPickEndDate, btnApplyFilter, btnClearFilter;
-    private TextView tvSelectedStartDate, tvSelectedEndDate, tvEventsCount;
+    private Button btnModeList, btnModeWeek, btnModeMonth;
+    private TextView tvSelectedStartDate, tvSelectedEndDate, tvEventsCount, tvListTitle, tvPeriodLabel;
     private RecyclerView recyclerView;
-    private LinearLayout emptyState;
-    private FirebaseFirestore db;
-    private FirebaseAuth mAuth;
-    private ArrayList<Event> joinedEventsList;
+    private LinearLayout emptyState, filterSection, calendarSection;
+    private GridLayout calendarGrid;
+    private final TextView[] dayCells = new TextView[MONTH_CELLS];
+    private TimetableStore timetable;
+    private final TimetableStore.Listener timetableListener = this::refreshDisplayedEvents;
     private ArrayList<Event> filteredEventsList;
+    private DateCodec.DayRange activeRange; // null = show every joined event
     private TimetableEventAdapter adapter;
 
+    private int mode = MODE_LIST;
+    private long selectedDay = DateCodec.epochDay(System.currentTimeMillis()); // focus of the calendar modes
+
+    // Asks where to save the .ics file; registered before the activity starts
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/calendar"), this::exportTimetable);
+
     private Calendar startCalendar = Calendar.getInstance();
     private Calendar endCalendar = Calendar.getInstance();
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-    private SimpleDateFormat displayDateFormat = new SimpleDateFormat("EEE, MMM d, yyyy", Locale.getDefault());
-    private final SimpleDateFormat EVENT_DATETIME_FMT =
-            new SimpleDateFormat("dd MMM yyyy, hh:mm a", Locale.getDefault());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,18 +93,15 @@ public class UserTimetableActivity extends AppCompatActivity {
 
         Log.d("Timetable", "Activity created");
 
-        // Initialize Firebase
-        db = FirebaseFirestore.getInstance();
-        mAuth = FirebaseAuth.getInstance();
+        timetable = TimetableStore.getInstance();
 
         // Initialize views
         initializeViews();
 
         // Setup RecyclerView
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        joinedEventsList = new ArrayList<>();
         filteredEventsList = new ArrayList<>();
-        adapter = new TimetableEventAdapter(filteredEventsList);
+        adapter = new TimetableEventAdapter();
         recyclerView.setAdapter(adapter);
 
         // Setup bottom navigation
@@ -83,10 +113,19 @@ public class UserTimetableActivity extends AppCompatActivity {
         // Setup button listeners
         setupButtonListeners();
 
+        // Redraw whenever the timetable changes: disk restore, reconcile, joins and leaves
+        timetable.addListener(timetableListener);
+
         // Load user's joined events
         loadJoinedEvents();
     }
 
+    @Override
+    protected void onDestroy() {
+        timetable.removeListener(timetableListener);
+        super.onDestroy();
+    }
+
     private void initializeViews() {
         btnPickStartDate = findViewById(R.id.btn_pick_start_date);
         btnPickEndDate = findViewById(R.id.btn_pick_end_date);
@@ -95,8 +134,49 @@ public class UserTimetableActivity extends AppCompatActivity {
         tvSelectedStartDate = findViewById(R.id.tv_selected_start_date);
         tvSelectedEndDate = findViewById(R.id.tv_selected_end_date);
         tvEventsCount = findViewById(R.id.tv_events_count);
+        tvListTitle = findViewById(R.id.tv_list_title);
+        tvPeriodLabel = findViewById(R.id.tv_period_label);
         recyclerView = findViewById(R.id.recycler_joined_events);
         emptyState = findViewById(R.id.empty_state);
+        filterSection = findViewById(R.id.filter_section);
+        calendarSection = findViewById(R.id.calendar_section);
+        calendarGrid = findViewById(R.id.calendar_grid);
+        btnModeList = findViewById(R.id.btn_mode_list);
+        btnModeWeek = findViewById(R.id.btn_mode_week);
+        btnModeMonth = findViewById(R.id.btn_mode_month);
+        setupCalendarGrid();
+    }
+
+    /**Weekday header and the 42 reusable day cells; built once, only relabelled afterwards*/
+    private void setupCalendarGrid() {
+        GridLayout weekdays = findViewById(R.id.calendar_weekdays);
+        String[] names = new DateFormatSymbols().getShortWeekdays();
+        int firstDayOfWeek = Calendar.getInstance().getFirstDayOfWeek();
+        for (int i = 0; i < 7; i++) {
+            TextView label = new TextView(this);
+            label.setText(names[(firstDayOfWeek - 1 + i) % 7 + 1]);
+            label.setGravity(Gravity.CENTER);
+            label.setTextSize(12);
+            label.setTextColor(0xFF666666);
+            weekdays.addView(label, cellParams());
+        }
+
+        for (int i = 0; i < MONTH_CELLS; i++) {
+            TextView cell = new TextView(this);
+            cell.setGravity(Gravity.CENTER);
+            cell.setTextSize(13);
+            cell.setPadding(0, 12, 0, 12);
+            cell.setOnClickListener(v -> selectDay((Long) v.getTag()));
+            dayCells[i] = cell;
+            calendarGrid.addView(cell, cellParams());
+        }
+    }
+
+    private static GridLayout.LayoutParams cellParams() {
+        GridLayout.LayoutParams params = new GridLayout.LayoutParams(
+                GridLayout.spec(GridLayout.UNDEFINED), GridLayout.spec(GridLayout.UNDEFINED, 1f));
+        params.width = 0;
+        return params;
     }
 
     private void setupDatePickers() {
@@ -107,6 +187,178 @@ public class UserTimetableActivity extends AppCompatActivity {
     private void setupButtonListeners() {
         btnApplyFilter.setOnClickListener(v -> applyDateFilter());
         btnClearFilter.setOnClickListener(v -> clearDateFilter());
+
+        btnModeList.setOnClickListener(v -> setMode(MODE_LIST));
+        btnModeWeek.setOnClickListener(v -> setMode(MODE_WEEK));
+        btnModeMonth.setOnClickListener(v -> setMode(MODE_MONTH));
+        findViewById(R.id.btn_export_ics).setOnClickListener(v -> {
+            if (timetable.size() == 0) {
+                Toast.makeText(this, "No events to export", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            exportLauncher.launch("timetable.ics");
+        });
+        findViewById(R.id.btn_reminders).setOnClickListener(v -> showReminderSettings());
+        findViewById(R.id.btn_prev_period).setOnClickListener(v -> shiftPeriod(-1));
+        findViewById(R.id.btn_next_period).setOnClickListener(v -> shiftPeriod(1));
+        bindModeButtons();
+    }
+
+    /**Pick how long before each joined event its reminder fires*/
+    private void showReminderSettings() {
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(this);
+        int[] choices = ReminderScheduler.LEAD_CHOICES_MINUTES;
+        String[] labels = new String[choices.length];
+        int checked = -1;
+        for (int i = 0; i < choices.length; i++) {
+            labels[i] = leadLabel(choices[i]);
+            if (choices[i] == scheduler.getLeadMinutes()) checked = i;
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Remind me")
+                .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                    scheduler.setLeadMinutes(choices[which]);
+                    dialog.dismiss();
+                    if (choices[which] > 0) requestNotificationPermission();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private static String leadLabel(int minutes) {
+        if (minutes == 0) return "Off";
+        if (minutes % (24 * 60) == 0) return (minutes / (24 * 60)) + " day before";
+        if (minutes % 60 == 0) return (minutes / 60) + " hour before";
+        return minutes + " minutes before";
+    }
+
+    /**Reminders are notifications, which need runtime permission from Android 13*/
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.TIRAMISU) return;
+        if (ReminderScheduler.getInstance(this).getLeadMinutes() == 0) return;
+        if (ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                == PackageManager.PERMISSION_GRANTED) return;
+        ActivityCompat.requestPermissions(this, new String[] {Manifest.permission.POST_NOTIFICATIONS}, 0);
+    }
+
+    /**Stream every joined event to the chosen document as iCalendar, off the main thread*/
+    private void exportTimetable(Uri uri) {
+        if (uri == null) return; // picker cancelled
+        List<Event> events = timetable.all();
+
+        new Thread(() -> {
+            int written = -1;
+            try (OutputStream stream = getContentResolver().openOutputStream(uri)) {
+                if (stream != null) {
+                    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                    IcsWriter ics = new IcsWriter(writer, System.currentTimeMillis());
+                    ics.begin();
+                    for (Event event : events) ics.write(event);
+                    ics.end();
+                    written = ics.getWritten();
+                }
+            } catch (IOException e) {
+                Log.e("Timetable", "Calendar export failed: " + e.getMessage());
+            }
+
+            int exported = written;
+            runOnUiThread(() -> Toast.makeText(this, exported >= 0
+                    ? "Exported " + exported + " events"
+                    : "Failed to export calendar", Toast.LENGTH_SHORT).show());
+        }).start();
+    }
+
+    private void setMode(int newMode) {
+        if (mode == newMode) return;
+        mode = newMode;
+        filterSection.setVisibility(mode == MODE_LIST ? View.VISIBLE : View.GONE);
+        calendarSection.setVisibility(mode == MODE_LIST ? View.GONE : View.VISIBLE);
+        bindModeButtons();
+        refreshDisplayedEvents();
+    }
+
+    private void bindModeButtons() {
+        bindModeButton(btnModeList, MODE_LIST);
+        bindModeButton(btnModeWeek, MODE_WEEK);
+        bindModeButton(btnModeMonth, MODE_MONTH);
+    }
+
+    private void bindModeButton(Button button, int buttonMode) {
+        button.setBackgroundTintList(ColorStateList.valueOf(mode == buttonMode ? 0xFF4A3AFF : 0xFF666666));
+    }
+
+    /**Move the calendar a week or a month; only day-number arithmetic and bucket lookups*/
+    private void shiftPeriod(int direction) {
+        if (mode == MODE_WEEK) {
+            selectedDay += 7L * direction;
+        } else {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(DateCodec.dayStartMs(selectedDay));
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+            calendar.add(Calendar.MONTH, direction);
+            selectedDay = DateCodec.epochDay(calendar.getTimeInMillis());
+        }
+        refreshDisplayedEvents();
+    }
+
+    private void selectDay(long epochDay) {
+        selectedDay = epochDay;
+        refreshDisplayedEvents();
+    }
+
+    /**First day shown in the grid: the week start of the selected day or of its month's first day*/
+    private long gridStartDay() {
+        long anchor = selectedDay;
+        if (mode == MODE_MONTH) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(DateCodec.dayStartMs(selectedDay));
+            anchor = selectedDay - (calendar.get(Calendar.DAY_OF_MONTH) - 1);
+        }
+        int firstDayOfWeek = Calendar.getInstance().getFirstDayOfWeek();
+        return anchor - (DateCodec.dayOfWeek(anchor) - firstDayOfWeek + 7) % 7;
+    }
+
+    /**Relabel the day cells from per-day counts; no event is parsed or fetched*/
+    private void renderCalendar() {
+        long firstDay = gridStartDay();
+        int cells = mode == MODE_WEEK ? 7 : MONTH_CELLS;
+        int[] counts = timetable.countsFrom(firstDay, cells);
+        long today = DateCodec.epochDay(System.currentTimeMillis());
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(DateCodec.dayStartMs(selectedDay));
+        int shownMonth = calendar.get(Calendar.MONTH);
+        calendar.setTimeInMillis(DateCodec.dayStartMs(firstDay));
+
+        for (int i = 0; i < MONTH_CELLS; i++) {
+            TextView cell = dayCells[i];
+            if (i >= cells) {
+                cell.setVisibility(View.GONE);
+                continue;
+            }
+            long day = firstDay + i;
+            boolean inPeriod = mode == MODE_WEEK || calendar.get(Calendar.MONTH) == shownMonth;
+            boolean selected = day == selectedDay;
+
+            String label = String.valueOf(calendar.get(Calendar.DAY_OF_MONTH));
+            cell.setText(counts[i] > 0 ? label + "\n● " + counts[i] : label + "\n");
+            cell.setTag(day);
+            cell.setVisibility(View.VISIBLE);
+            cell.setTypeface(null, day == today ? Typeface.BOLD : Typeface.NORMAL);
+            cell.setBackgroundColor(selected ? 0xFF4A3AFF : 0x00000000);
+            cell.setTextColor(selected ? 0xFFFFFFFF : inPeriod ? 0xFF333333 : 0xFFBBBBBB);
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        long selectedStart = DateCodec.dayStartMs(selectedDay);
+        if (mode == MODE_WEEK) {
+            tvPeriodLabel.setText(DateCodec.formatShortDate(DateCodec.dayStartMs(firstDay))
+                    + " – " + DateCodec.formatShortDate(DateCodec.dayStartMs(firstDay + 6)));
+        } else {
+            tvPeriodLabel.setText(DateCodec.formatMonth(selectedStart));
+        }
+        tvListTitle.setText(DateCodec.formatDisplayDate(selectedStart));
     }
 
     private void showDatePicker(boolean isStartDate) {
@@ -133,9 +385,9 @@ public class UserTimetableActivity extends AppCompatActivity {
 
     private void updateDateDisplay(boolean isStartDate) {
         if (isStartDate) {
-            tvSelectedStartDate.setText(displayDateFormat.format(startCalendar.getTime()));
+            tvSelectedStartDate.setText(DateCodec.formatDisplayDate(startCalendar.getTimeInMillis()));
         } else {
-            tvSelectedEndDate.setText(displayDateFormat.format(endCalendar.getTime()));
+            tvSelectedEndDate.setText(DateCodec.formatDisplayDate(endCalendar.getTimeInMillis()));
         }
     }
 
@@ -157,15 +409,9 @@ public class UserTimetableActivity extends AppCompatActivity {
     }
 
     private void filterEventsByDateRange() {
-        filteredEventsList.clear();
-
-        for (Event event : joinedEventsList) {
-            if (event.getStartDateTime() != null && isEventInDateRange(event)) {
-                filteredEventsList.add(event);
-            }
-        }
-
-        updateEventsDisplay();
+        // Day boundaries are computed once per filter, not per event
+        activeRange = DateCodec.dayRange(startCalendar.getTimeInMillis(), endCalendar.getTimeInMillis());
+        refreshDisplayedEvents();
 
         if (filteredEventsList.isEmpty()) {
             Toast.makeText(this, "No events found in the selected date range", Toast.LENGTH_SHORT).show();
@@ -174,39 +420,24 @@ public class UserTimetableActivity extends AppCompatActivity {
         }
     }
 
-    private boolean isEventInDateRange(Event event) {
-        try {
-            String raw = event.getStartDateTime();
-            if (raw == null || raw.trim().isEmpty()) return false;
-
-            // Parse the full "dd MMM yyyy, hh:mm a"
-            Date startDt = EVENT_DATETIME_FMT.parse(raw);
-            if (startDt == null) return false;
-
-            Calendar eventCal = Calendar.getInstance();
-            eventCal.setTime(startDt);
-
-            // Build inclusive day-range from the pickers
-            Calendar startCal = (Calendar) startCalendar.clone();
-            startCal.set(Calendar.HOUR_OF_DAY, 0);
-            startCal.set(Calendar.MINUTE, 0);
-            startCal.set(Calendar.SECOND, 0);
-            startCal.set(Calendar.MILLISECOND, 0);
-
-            Calendar endCal = (Calendar) endCalendar.clone();
-            endCal.set(Calendar.HOUR_OF_DAY, 23);
-            endCal.set(Calendar.MINUTE, 59);
-            endCal.set(Calendar.SECOND, 59);
-            endCal.set(Calendar.MILLISECOND, 999);
-
-            return !eventCal.before(startCal) && !eventCal.after(endCal);
-        } catch (Exception e) {
-            Log.e("Timetable", "Date parse error for: " + event.getStartDateTime() + " → " + e.getMessage());
-            return false;
+    /**
+     * Rebuild the shown list from the store: a binary-searched slice when filtered, or the
+     * selected day's bucket in the calendar modes
+     */
+    private void refreshDisplayedEvents() {
+        filteredEventsList.clear();
+        if (mode != MODE_LIST) {
+            renderCalendar();
+            filteredEventsList.addAll(timetable.onDay(selectedDay));
+        } else {
+            tvListTitle.setText("Your Joined Events");
+            filteredEventsList.addAll(activeRange == null
+                    ? timetable.all()
+                    : timetable.startingBetween(activeRange.startMs, activeRange.endMs));
         }
+        updateEventsDisplay();
     }
 
-
     private void clearDateFilter() {
         startCalendar = Calendar.getInstance();
         endCalendar = Calendar.getInstance();
@@ -214,104 +445,60 @@ public class UserTimetableActivity extends AppCompatActivity {
         tvSelectedEndDate.setText("Not selected");
 
         // Show all events
-        filteredEventsList.clear();
-        filteredEventsList.addAll(joinedEventsList);
-        updateEventsDisplay();
+        activeRange = null;
+        refreshDisplayedEvents();
 
         Toast.makeText(this, "Filter cleared", Toast.LENGTH_SHORT).show();
     }
 
     private void loadJoinedEvents() {
-        String firebaseUid = mAuth.getCurrentUser().getUid();
-        Log.d("Timetable", "Loading joined events for user UID: " + firebaseUid);
-
-        joinedEventsList.clear();
-        filteredEventsList.clear();
-
-        // step1 - get custom userID (Uxxxx)
-        db.collection("user").document(firebaseUid).get()
-                .addOnSuccessListener(userDoc -> {
-                    if (!userDoc.exists()) {
-                        Log.e("Timetable", "User record not found!");
-                        updateEventsDisplay();
-                        return;
-                    }
-
-                    String customUserID = userDoc.getString("userID");
-                    if (customUserID == null) {
-                        Log.e("Timetable", "User has no custom userID field!");
-                        updateEventsDisplay();
-                        return;
+        // Joined events already held this session render straight away
+        if (timetable.isLoaded()) refreshDisplayedEvents();
+
+        // step1 - custom userID (Uxxxx) from the session
+        SessionIdentity.getInstance(this).withUserID(customUserID -> {
+            if (customUserID == null) {
+                Log.e("Timetable", "User has no custom userID field!");
+                updateEventsDisplay();
+                return;
+            }
+            Log.d("Timetable", "Loading joined events for user: " + customUserID);
+
+            // Step 2 - on a cold start, draw the copy saved on the device (the listener redraws)
+            TimetableDiskCache.getInstance(this).restore(customUserID, null);
+            // Reminders follow the store from here on; only changed events are re-registered
+            ReminderScheduler.getInstance(this).attach(customUserID);
+            requestNotificationPermission();
+
+            // Step 3 - attendance, then events and counts in parallel; only the differences are applied
+            new JoinedEventsLoader().load(customUserID, new JoinedEventsLoader.Callback() {
+                @Override
+                public void onLoaded(List<Event> events, boolean partial) {
+                    int changes = timetable.reconcile(events, partial);
+                    Log.d("Timetable", "Reconciled timetable, " + changes + " events changed");
+                    if (partial) {
+                        // Events that failed to load stay as they were saved
+                        Toast.makeText(UserTimetableActivity.this, "Some of your events could not be refreshed", Toast.LENGTH_SHORT).show();
                     }
+                }
 
-                    // Step 2 - find all events the user joined
-                    db.collection("attendance")
-                            .whereEqualTo("userID", customUserID)
-                            .get()
-                            .addOnSuccessListener(attendanceQuery -> {
-                                Log.d("Timetable", "Found " + attendanceQuery.size() + " attendance records for " + customUserID);
-
-                                if (attendanceQuery.isEmpty()) {
-                                    updateEventsDisplay();
-                                    return;
-                                }
-
-                                HashMap<String, Boolean> seenEvents = new HashMap<>();
-
-                                for (QueryDocumentSnapshot attendanceDoc : attendanceQuery) {
-                                    String eventCustomID = attendanceDoc.getString("eventID");
-                                    if (eventCustomID != null && !seenEvents.containsKey(eventCustomID)) {
-                                        seenEvents.put(eventCustomID, true);
-
-                                        // Step 3 - fetch event details
-                                        db.collection("events")
-                                                .whereEqualTo("eventID", eventCustomID)
-                                                .get()
-                                                .addOnSuccessListener(eventSnapshots -> {
-                                                    for (QueryDocumentSnapshot eventDoc : eventSnapshots) {
-                                                        Event event = parseEventFromDocument(eventDoc);
-                                                        if (event != null) {
-
-                                                            // Step 4 - fetch live attendee count
-                                                            db.collection("attendance")
-                                                                    .whereEqualTo("eventID", event.getEventID())
-                                                                    .get()
-                                                                    .addOnSuccessListener(snapshot -> {
-                                                                        int liveCount = snapshot.size();
-                                                                        event.setCurrentAttendees(liveCount);
-
-                                                                        joinedEventsList.add(event);
-                                                                        filteredEventsList.add(event);
-                                                                        updateEventsDisplay();
-                                                                    })
-                                                                    .addOnFailureListener(e ->
-                                                                            Log.e("Timetable", "Failed to fetch live count: " + e.getMessage()));
-                                                        }
-                                                    }
-                                                })
-                                                .addOnFailureListener(e ->
-                                                        Log.e("Timetable", "Error loading event: " + e.getMessage()));
-                                    }
-                                }
-                            })
-                            .addOnFailureListener(e -> {
-                                Log.e("Timetable", "Failed to load attendance: " + e.getMessage());
-                                Toast.makeText(this, "Failed to load your events", Toast.LENGTH_SHORT).show();
-                                updateEventsDisplay();
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("Timetable", "Failed to get userID: " + e.getMessage());
+                @Override
+                public void onError(Exception e) {
+                    // Keep showing the saved copy if there is one
+                    Toast.makeText(UserTimetableActivity.this, "Failed to load your events", Toast.LENGTH_SHORT).show();
                     updateEventsDisplay();
-                });
+                }
+            });
+        });
     }
 
 
     private void updateEventsDisplay() {
-        adapter.notifyDataSetChanged();
+        adapter.submitList(new ArrayList<>(filteredEventsList));
         tvEventsCount.setText(filteredEventsList.size() + " events");
 
-        if (filteredEventsList.isEmpty()) {
+        // An empty day in the calendar is not an empty timetable
+        if (filteredEventsList.isEmpty() && mode == MODE_LIST) {
             recyclerView.setVisibility(View.GONE);
             emptyState.setVisibility(View.VISIBLE);
         } else {
@@ -320,96 +507,18 @@ public class UserTimetableActivity extends AppCompatActivity {
         }
     }
 
-    private Event parseEventFromDocument(DocumentSnapshot doc) {
-        Event event = new Event();
-        try {
-            event.setId(doc.getId());
-            event.setEventID(doc.getString("eventID"));
-            event.setAdminID(doc.getString("adminID"));
-            event.setDescription(doc.getString("description"));
-            event.setEndDateTime(doc.getString("endDateTime"));
-            event.setEventName(doc.getString("eventName"));
-            event.setStartDateTime(doc.getString("startDateTime"));
-            event.setVenue(doc.getString("venue"));
-
-            Long genderSpec = doc.getLong("genderSpec");
-            if (genderSpec != null) {
-                event.setGenderSpec(genderSpec.intValue());
-            } else {
-                event.setGenderSpec(2);
-            }
-
-            Long currentAttendees = doc.getLong("currentAttendees");
-            event.setCurrentAttendees(currentAttendees != null ? currentAttendees.intValue() : 0);
-
-            Long pax = doc.getLong("pax");
-            event.setPax(pax != null ? pax.intValue() : 0);
+    // Adapter for Timetable; lists are diffed off the main thread
+    private class TimetableEventAdapter extends ListAdapter<Event, TimetableEventAdapter.EventViewHolder> {
+        private final StableIds stableIds = new StableIds();
 
-            return event;
-        } catch (Exception e) {
-            Log.e("Timetable", "Error parsing event: " + e.getMessage());
-            return null;
+        TimetableEventAdapter() {
+            super(EventDiff.CALLBACK);
+            setHasStableIds(true);
         }
-    }
 
-    // Event Model
-    public static class Event {
-        private String id;
-        private String eventID;
-        private String adminID;
-        private String description;
-        private String endDateTime;
-        private String eventName;
-        private int genderSpec;
-        private String startDateTime;
-        private String venue;
-        private int currentAttendees;
-        private int pax;
-
-        public Event() {}
-
-        // Getters and Setters
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-
-        public String getEventID() { return eventID; }
-        public void setEventID(String eventID) { this.eventID = eventID; }
-
-        public String getAdminID() { return adminID; }
-        public void setAdminID(String adminID) { this.adminID = adminID; }
-
-        public String getDescription() { return description; }
-        public void setDescription(String description) { this.description = description; }
-
-        public String getEndDateTime() { return endDateTime; }
-        public void setEndDateTime(String endDateTime) { this.endDateTime = endDateTime; }
-
-        public String getEventName() { return eventName; }
-        public void setEventName(String eventName) { this.eventName = eventName; }
-
-        public int getGenderSpec() { return genderSpec; }
-        public void setGenderSpec(int genderSpec) { this.genderSpec = genderSpec; }
-
-        public String getStartDateTime() { return startDateTime; }
-        public void setStartDateTime(String startDateTime) { this.startDateTime = startDateTime; }
-
-        public String getVenue() { return venue; }
-        public void setVenue(String venue) { this.venue = venue; }
-
-        public int getCurrentAttendees() { return currentAttendees; }
-        public void setCurrentAttendees(int currentAttendees) { this.currentAttendees = currentAttendees; }
-
-        public int getPax() { return pax; }
-        public void setPax(int pax) { this.pax = pax; }
-    }
-
-    // Adapter for Timetable
-    private class TimetableEventAdapter extends RecyclerView.Adapter<TimetableEventAdapter.EventViewHolder> {
-
-        private final ArrayList<Event> events;
-
-        TimetableEventAdapter(ArrayList<Event> events) {
-            this.events = events;
+        @Override
+        public long getItemId(int position) {
+            return stableIds.idFor(getItem(position).getId());
         }
 
         @NonNull
@@ -422,16 +531,19 @@ public class UserTimetableActivity extends AppCompatActivity {
         @Override
         public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
             try {
-                Event event = events.get(position);
-                holder.bind(event, position);
+                holder.bind(getItem(position));
             } catch (Exception e) {
                 Log.e("TimetableAdapter", "Error binding view holder: " + e.getMessage());
             }
         }
 
         @Override
-        public int getItemCount() {
-            return events.size();
+        public void onBindViewHolder(@NonNull EventViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.contains(EventDiff.PAYLOAD_CAPACITY)) {
+                holder.bindCapacity(getItem(position));
+            } else {
+                onBindViewHolder(holder, position);
+            }
         }
 
         class EventViewHolder extends RecyclerView.ViewHolder {
@@ -445,9 +557,14 @@ public class UserTimetableActivity extends AppCompatActivity {
                 tvDatetime = itemView.findViewById(R.id.tv_event_datetime);
                 tvCapacity = itemView.findViewById(R.id.tv_event_capacity);
                 btnLeave = itemView.findViewById(R.id.btn_leave);
+
+                btnLeave.setOnClickListener(v -> {
+                    int position = getBindingAdapterPosition();
+                    if (position != RecyclerView.NO_POSITION) leaveEvent(getItem(position));
+                });
             }
 
-            void bind(Event event, int position) {
+            void bind(Event event) {
                 tvEventName.setText(event.getEventName() != null ? event.getEventName() : "Unnamed Event");
                 tvVenue.setText("Venue: " + (event.getVenue() != null ? event.getVenue() : "Not specified"));
 
@@ -455,74 +572,59 @@ public class UserTimetableActivity extends AppCompatActivity {
                 String endTime = event.getEndDateTime() != null ? event.getEndDateTime() : "Not set";
                 tvDatetime.setText("Start: " + startTime + "\nEnd: " + endTime);
 
-                tvCapacity.setText(event.getCurrentAttendees() + " / " + event.getPax());
+                bindCapacity(event);
 
                 btnLeave.setText("Leave Event");
                 btnLeave.setEnabled(true);
                 btnLeave.setBackgroundTintList(ContextCompat.getColorStateList(UserTimetableActivity.this, R.color.colorPrimary));
+            }
 
-                btnLeave.setOnClickListener(v -> leaveEvent(event, position));
+            void bindCapacity(Event event) {
+                tvCapacity.setText(event.getCurrentAttendees() + " / " + event.getPax());
             }
         }
 
-        private void leaveEvent(Event event, int position) {
-            String firebaseUid = mAuth.getCurrentUser().getUid();
-
-            // Step 1 - Get the user's custom userID first
-            db.collection("user").document(firebaseUid).get()
-                    .addOnSuccessListener(userDoc -> {
-                        if (!userDoc.exists()) {
-                            Toast.makeText(UserTimetableActivity.this, "User not found", Toast.LENGTH_SHORT).show();
-                            return;
-                        }
-
-                        String customUserID = userDoc.getString("userID");
-                        if (customUserID == null) {
-                            Toast.makeText(UserTimetableActivity.this, "Missing user ID field", Toast.LENGTH_SHORT).show();
-                            return;
-                        }
-
-                        // Match by eventID (E001 etc.) and customUserID (U001)
-                        db.collection("attendance")
-                                .whereEqualTo("eventID", event.getEventID())
-                                .whereEqualTo("userID", customUserID)
-                                .get()
-                                .addOnSuccessListener(querySnapshot -> {
-                                    if (!querySnapshot.isEmpty()) {
-                                        querySnapshot.getDocuments().get(0).getReference().delete()
-                                                .addOnSuccessListener(aVoid -> {
-                                                    Toast.makeText(UserTimetableActivity.this, "Left event successfully!", Toast.LENGTH_SHORT).show();
-
-                                                    // Update attendee count
-                                                    db.collection("events")
-                                                            .whereEqualTo("eventID", event.getEventID())
-                                                            .get()
-                                                            .addOnSuccessListener(eventSnap -> {
-                                                                if (!eventSnap.isEmpty()) {
-                                                                    DocumentReference eventRef = eventSnap.getDocuments().get(0).getReference();
-                                                                    eventRef.update("currentAttendees", Math.max(0, event.getCurrentAttendees() - 1));
-                                                                }
-
-                                                                // Remove from list
-                                                                joinedEventsList.remove(event);
-                                                                events.remove(position);
-                                                                notifyItemRemoved(position);
-                                                                updateEventsDisplay();
-                                                            });
-                                                })
-                                                .addOnFailureListener(e ->
-                                                        Toast.makeText(UserTimetableActivity.this, "Failed to leave event", Toast.LENGTH_SHORT).show());
-                                    } else {
-                                        Toast.makeText(UserTimetableActivity.this, "Attendance record not found", Toast.LENGTH_SHORT).show();
-                                    }
-                                })
-                                .addOnFailureListener(e ->
-                                        Toast.makeText(UserTimetableActivity.this, "Error leaving event", Toast.LENGTH_SHORT).show());
-                    })
-                    .addOnFailureListener(e ->
-                            Toast.makeText(UserTimetableActivity.this, "Error fetching user data", Toast.LENGTH_SHORT).show());
-
-    }
+        /**Optimistic leave: the row goes at once and comes back if the batch fails*/
+        private void leaveEvent(Event event) {
+            SessionIdentity.getInstance(UserTimetableActivity.this).withUserID(customUserID -> {
+                if (customUserID == null) {
+                    Toast.makeText(UserTimetableActivity.this, "Missing user ID field", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+
+                JoinedEventsIndex joinedIndex = JoinedEventsIndex.getInstance();
+                String attendanceDocId = joinedIndex.attendanceDocId(event.getEventID());
+
+                // Drop the row now; the store listener redraws
+                joinedIndex.markLeft(event.getEventID());
+                timetable.remove(event.getId());
+
+                // One transaction: delete the attendance row and decrement the counter server-side
+                AttendanceService.getInstance().leave(event.getId(), event.getEventID(), customUserID, attendanceDocId,
+                        new AttendanceService.LeaveCallback() {
+                            @Override
+                            public void onLeft() {
+                                joinedIndex.settle(event.getEventID());
+                                Toast.makeText(UserTimetableActivity.this, "Left event successfully!", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onNotJoined() {
+                                // Already gone on the server, so the removal stands
+                                joinedIndex.settle(event.getEventID());
+                                Toast.makeText(UserTimetableActivity.this, "Attendance record not found", Toast.LENGTH_SHORT).show();
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                // Roll back: the event returns to its place in the timetable
+                                joinedIndex.settle(event.getEventID());
+                                timetable.upsert(event);
+                                Toast.makeText(UserTimetableActivity.this, "Failed to leave event", Toast.LENGTH_SHORT).show();
+                            }
+                        });
+            });
+        }
     }
 
     private void setupBottomNavigation() {
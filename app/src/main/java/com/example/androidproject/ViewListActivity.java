@@ -1,30 +1,83 @@
 package com.example.androidproject;
 
+import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.util.Log;
+import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.example.androidproject.data.AttendanceService;
+import com.example.androidproject.data.AttendeeCountService;
+import com.example.androidproject.data.AttendeePager;
+import com.example.androidproject.data.BulkAttendeeRemoval;
+import com.example.androidproject.model.Attendee;
+import com.example.androidproject.model.UserProfile;
+import com.example.androidproject.ui.StableIds;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 public class ViewListActivity extends AppCompatActivity {
+    private static final int PAGE_SIZE = 30;
+    // Load the next page when this close to the end of what is loaded
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final long SEARCH_DELAY_MS = 300;
 
     private FirebaseFirestore db;
-    private LinearLayout attendeesContainer;
     private String eventID;
+    private String eventDocId; // Firestore id of the event, for the attendee counter
     private ImageButton backBtn;
 
+    private RecyclerView recyclerView;
+    private AttendeeAdapter adapter;
+    private AttendeePager pager;
+    private TextView totalView;
+    private TextView emptyView;
+    private int total = -1;
+    private String activeQuery = "";
+
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable runSearch = this::applySearch;
+
+    // Multi-select: attendance doc ids picked for removal
+    private final Set<String> selected = new LinkedHashSet<>();
+    private boolean selecting = false;
+    private View selectionBar;
+    private TextView selectionCountView;
+    private View progressSection;
+    private TextView progressText;
+    private ProgressBar progressBar;
+    private BulkAttendeeRemoval bulkRemoval;
+    private final BulkAttendeeRemoval.Listener bulkListener = new BulkRemovalListener();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -33,11 +86,13 @@ public class ViewListActivity extends AppCompatActivity {
         backBtn = findViewById(R.id.backButton);
 
         db = FirebaseFirestore.getInstance();
-        attendeesContainer = findViewById(R.id.attendees_container);
+        totalView = findViewById(R.id.tv_attendee_total);
+        emptyView = findViewById(R.id.tv_attendees_empty);
 
         Intent intent = getIntent();
         if (intent != null) {
             eventID = intent.getStringExtra("eventID");
+            eventDocId = intent.getStringExtra("eventDocId");
             Log.d("ViewListActivity", "Received eventID: " + eventID);
         }
 
@@ -47,7 +102,51 @@ public class ViewListActivity extends AppCompatActivity {
             return;
         }
 
-        loadAttendees();
+        // Only cards on screen are inflated; rows arrive a page at a time as the list scrolls
+        recyclerView = findViewById(R.id.recycler_attendees);
+        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new AttendeeAdapter();
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                checkPrefetch();
+            }
+        });
+
+        EditText searchInput = findViewById(R.id.attendee_search_input);
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Each search is a query, so wait until the user pauses typing
+                activeQuery = s.toString().trim();
+                searchHandler.removeCallbacks(runSearch);
+                searchHandler.postDelayed(runSearch, SEARCH_DELAY_MS);
+            }
+        });
+
+        selectionBar = findViewById(R.id.selection_bar);
+        selectionCountView = findViewById(R.id.tv_selection_count);
+        progressSection = findViewById(R.id.bulk_progress_section);
+        progressText = findViewById(R.id.tv_bulk_progress);
+        progressBar = findViewById(R.id.progress_bulk_removal);
+        Button cancelSelectionBtn = findViewById(R.id.btn_cancel_selection);
+        Button removeSelectedBtn = findViewById(R.id.btn_remove_selected);
+        cancelSelectionBtn.setOnClickListener(v -> setSelecting(false));
+        removeSelectedBtn.setOnClickListener(v -> confirmRemoveSelected());
+
+        pager = new AttendeePager(eventID, PAGE_SIZE);
+        loadTotal();
+        loadNextPage();
+
+        bulkRemoval = BulkAttendeeRemoval.getInstance(this);
+        checkInterruptedRemoval();
 
 
         BottomNavigationView bottomNav = findViewById(R.id.bottom_navigation);
@@ -79,107 +178,247 @@ public class ViewListActivity extends AppCompatActivity {
         });
     }
 
-    private void loadAttendees() {
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(runSearch);
+        if (pager != null) pager.reset();
+        // A running removal carries on without the screen
+        if (bulkRemoval != null) bulkRemoval.detach(bulkListener);
+        super.onDestroy();
+    }
+
+    /**Total from a server-side count aggregate, shared with the other screens' counts*/
+    private void loadTotal() {
+        AttendeeCountService.getInstance().getCount(eventID, count -> {
+            total = count;
+            bindTotal();
+        });
+    }
+
+    private void bindTotal() {
+        if (total < 0) {
+            totalView.setText("");
+        } else {
+            totalView.setText(total == 1 ? "1 attendee" : total + " attendees");
+        }
+    }
+
+    private void checkPrefetch() {
+        if (!activeQuery.isEmpty() || !pager.hasMore() || pager.isLoading()) return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (adapter.getItemCount() - 1 - layoutManager.findLastVisibleItemPosition() <= PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
         Log.d("ViewListActivity", "Loading attendees for eventID: " + eventID);
+        pager.loadNext(new AttendeePager.Callback() {
+            @Override
+            public void onPage(List<Attendee> attendees, boolean isLast) {
+                List<Attendee> updated = new ArrayList<>(adapter.getCurrentList());
+                updated.addAll(attendees);
+                // Keep filling while the loaded rows do not reach the end of the screen
+                adapter.submitList(updated, () -> recyclerView.post(ViewListActivity.this::checkPrefetch));
+                bindEmpty(updated, isLast, "No attendees yet.");
+            }
 
-        db.collection("attendance")
-                .whereEqualTo("eventID", eventID)
-                .get()
-                .addOnSuccessListener(snapshot -> {
-                    attendeesContainer.removeAllViews();
-
-                    if (snapshot.isEmpty()) {
-                        Log.d("ViewListActivity", "No attendance records found for eventID: " + eventID);
-                        TextView empty = new TextView(this);
-                        empty.setText("No attendees yet.");
-                        empty.setTextColor(getResources().getColor(android.R.color.black));
-                        empty.setTextSize(16f);
-                        attendeesContainer.addView(empty);
-                        return;
-                    }
+            @Override
+            public void onError(Exception e) {
+                Log.e("ViewListActivity", "Failed to load attendees", e);
+                Toast.makeText(ViewListActivity.this, "Failed to load attendees: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 
-                    Log.d("ViewListActivity", "Found " + snapshot.size() + " attendance records");
-
-                    for (QueryDocumentSnapshot attendanceDoc : snapshot) {
-                        String attendanceDocID = attendanceDoc.getId();
-                        String userID = attendanceDoc.getString("userID");
-
-                        Log.d("ViewListActivity", "Processing attendance: " + attendanceDocID + ", userID: " + userID);
-
-                        if (userID == null || userID.isEmpty()) {
-                            Log.w("ViewListActivity", "Attendance doc missing userID: " + attendanceDocID);
-                            continue;
-                        }
-
-                        // Find the matching user by userID
-                        db.collection("user")
-                                .whereEqualTo("userID", userID)
-                                .get()
-                                .addOnSuccessListener(userSnapshot -> {
-                                    if (!userSnapshot.isEmpty()) {
-                                        for (DocumentSnapshot userDoc : userSnapshot) {
-                                            addAttendeeCard(userDoc, attendanceDocID);
-                                            Log.d("ViewListActivity", "Added attendee card for userID: " + userID);
-                                        }
-                                    } else {
-                                        Log.w("ViewListActivity", "No user found with userID: " + userID);
-                                    }
-                                })
-                                .addOnFailureListener(e ->
-                                        Log.e("ViewListActivity", "Error loading user with userID: " + userID, e));
-                    }
+    /**Show search results, or go back to the paged list when the query is cleared*/
+    private void applySearch() {
+        adapter.submitList(new ArrayList<>());
+        emptyView.setVisibility(View.GONE);
+        if (activeQuery.isEmpty()) {
+            pager.reset();
+            loadNextPage();
+            return;
+        }
+
+        pager.search(activeQuery, new AttendeePager.Callback() {
+            @Override
+            public void onPage(List<Attendee> attendees, boolean isLast) {
+                adapter.submitList(attendees);
+                bindEmpty(attendees, isLast, "No attendees match \"" + activeQuery + "\".");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // An error, not an empty result: the attendees may well be there
+                adapter.submitList(new ArrayList<>());
+                bindEmpty(new ArrayList<>(), true, "Search failed. Check your connection and try again.");
+                Toast.makeText(ViewListActivity.this, "Search failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void bindEmpty(List<Attendee> shown, boolean isLast, String message) {
+        emptyView.setText(message);
+        emptyView.setVisibility(shown.isEmpty() && isLast ? View.VISIBLE : View.GONE);
+    }
+
+    /**Selection mode shows checkboxes on every card; leaving it clears the selection*/
+    private void setSelecting(boolean on) {
+        if (on && eventDocId == null) return; // bulk removal updates the event's counter
+        selecting = on;
+        if (!on) selected.clear();
+        selectionBar.setVisibility(on ? View.VISIBLE : View.GONE);
+        bindSelectionCount();
+        adapter.refreshSelection();
+    }
+
+    private void toggleSelected(Attendee attendee) {
+        if (!selected.remove(attendee.getAttendanceDocId())) selected.add(attendee.getAttendanceDocId());
+        bindSelectionCount();
+    }
+
+    private void bindSelectionCount() {
+        selectionCountView.setText(selected.size() + " selected");
+    }
+
+    private void confirmRemoveSelected() {
+        if (selected.isEmpty()) {
+            Toast.makeText(this, "No attendees selected", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        int count = selected.size();
+        new AlertDialog.Builder(this)
+                .setTitle("Remove Attendees")
+                .setMessage("Remove " + count + (count == 1 ? " attendee" : " attendees") + " from this event?")
+                .setPositiveButton("Remove", (d, w) -> {
+                    List<String> rows = new ArrayList<>(selected);
+                    setSelecting(false);
+                    showProgress(0, rows.size());
+                    bulkRemoval.start(eventDocId, eventID, rows, bulkListener);
                 })
-                .addOnFailureListener(e -> {
-                    Log.e("ViewListActivity", "Failed to load attendees", e);
-                    Toast.makeText(this, "Failed to load attendees: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                });
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
-    //to view each attendee
-    private void addAttendeeCard(DocumentSnapshot userDoc, String attendanceDocID) {
-        View attendeeCard = getLayoutInflater().inflate(R.layout.item_attendee_card, attendeesContainer, false);
-
-        ImageView profilePic = attendeeCard.findViewById(R.id.profile_pic);
-        TextView usernameView = attendeeCard.findViewById(R.id.username);
-        TextView emailView = attendeeCard.findViewById(R.id.email);
-        ImageButton removeBtn = attendeeCard.findViewById(R.id.remove_button);
-
-        String name = userDoc.getString("name");
-        String email = userDoc.getString("email");
-        String profileVal = userDoc.getString("profilePic");
-        String phone = userDoc.getString("phoneNumber");
-        Long genderValue = userDoc.getLong("gender");
-        String genderText = (genderValue != null && genderValue == 1) ? "Male" : "Female";
-
-
-        usernameView.setText("Name: " + (name != null ? name : "Unknown"));
-        emailView.setText(
-                "Email: " + (email != null ? email : "N/A") +
-                        "\nPhone: " + (phone != null ? phone : "N/A") +
-                        "\nGender: " + genderText
-        );
-
-        if (profileVal != null && (profileVal.startsWith("http://") || profileVal.startsWith("https://"))) {
-            Glide.with(this).load(profileVal).into(profilePic);
-        } else {
-            profilePic.setImageResource(avatarResForKey(profileVal));
+    /**Re-attach to a removal still running, or offer to finish one that was interrupted*/
+    private void checkInterruptedRemoval() {
+        if (eventDocId == null) return;
+        if (bulkRemoval.isRunning(eventDocId)) {
+            bulkRemoval.attach(eventDocId, bulkListener);
+            showProgress(0, bulkRemoval.pendingCount(eventDocId));
+            return;
         }
 
-        removeBtn.setOnClickListener(v -> removeAttendee(attendanceDocID, attendeeCard));
+        int pending = bulkRemoval.pendingCount(eventDocId);
+        if (pending == 0) return;
+        new AlertDialog.Builder(this)
+                .setTitle("Unfinished Removal")
+                .setMessage(pending + (pending == 1 ? " attendee was" : " attendees were")
+                        + " still to be removed when the last removal stopped. Finish it now?")
+                .setPositiveButton("Resume", (d, w) -> {
+                    showProgress(0, pending);
+                    bulkRemoval.resume(eventDocId, bulkListener);
+                })
+                .setNegativeButton("Discard", (d, w) -> bulkRemoval.discard(eventDocId))
+                .show();
+    }
 
-        attendeesContainer.addView(attendeeCard);
+    private void showProgress(int removed, int total) {
+        progressSection.setVisibility(View.VISIBLE);
+        progressBar.setMax(Math.max(1, total));
+        progressBar.setProgress(removed);
+        progressText.setText("Removing attendees… " + removed + " / " + total);
     }
 
+    private void hideProgress() {
+        progressSection.setVisibility(View.GONE);
+    }
 
-    private void removeAttendee(String attendanceDocID, View cardView) {
-        db.collection("attendance").document(attendanceDocID)
-                .delete()
-                .addOnSuccessListener(unused -> {
-                    attendeesContainer.removeView(cardView);
-                    Toast.makeText(this, "Attendee removed successfully", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed to remove attendee: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+    private void removeRows(Set<String> attendanceDocIDs) {
+        List<Attendee> updated = new ArrayList<>();
+        for (Attendee attendee : adapter.getCurrentList()) {
+            if (!attendanceDocIDs.contains(attendee.getAttendanceDocId())) updated.add(attendee);
+        }
+        adapter.submitList(updated);
+    }
+
+    private class BulkRemovalListener implements BulkAttendeeRemoval.Listener {
+        @Override
+        public void onChunkRemoved(List<String> attendanceDocIds, int deleted) {
+            removeRows(new HashSet<>(attendanceDocIds));
+            if (total >= 0) {
+                total = Math.max(0, total - deleted);
+                bindTotal();
+            }
+        }
+
+        @Override
+        public void onProgress(int removed, int total) {
+            showProgress(removed, total);
+        }
+
+        @Override
+        public void onFinished(int removed) {
+            hideProgress();
+            // The cached count was dropped; fetch the number the server holds now
+            loadTotal();
+            Toast.makeText(ViewListActivity.this, "Removed " + removed + (removed == 1 ? " attendee" : " attendees"),
+                    Toast.LENGTH_SHORT).show();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            hideProgress();
+            Toast.makeText(ViewListActivity.this, "Removal stopped: " + e.getMessage()
+                    + ". Open this list again to resume.", Toast.LENGTH_LONG).show();
+        }
+    }
+
+    private void removeAttendee(Attendee attendee) {
+        String attendanceDocID = attendee.getAttendanceDocId();
+        if (eventDocId == null) {
+            // Opened without the event's doc id: the counter cannot be updated alongside
+            db.collection("attendance").document(attendanceDocID)
+                    .delete()
+                    .addOnSuccessListener(unused -> onAttendeeRemoved(attendanceDocID))
+                    .addOnFailureListener(this::onRemoveFailed);
+            return;
+        }
+
+        // Delete the row and decrement currentAttendees in one batch
+        AttendanceService.getInstance().removeAttendance(eventDocId, eventID, attendanceDocID,
+                new AttendanceService.LeaveCallback() {
+                    @Override
+                    public void onLeft() {
+                        onAttendeeRemoved(attendanceDocID);
+                    }
+
+                    @Override
+                    public void onNotJoined() {
+                        onAttendeeRemoved(attendanceDocID);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        onRemoveFailed(e);
+                    }
+                });
+    }
+
+    private void onAttendeeRemoved(String attendanceDocID) {
+        Set<String> removed = new HashSet<>();
+        removed.add(attendanceDocID);
+        removeRows(removed);
+        if (total > 0) {
+            total--;
+            bindTotal();
+        }
+        Toast.makeText(this, "Attendee removed successfully", Toast.LENGTH_SHORT).show();
+    }
+
+    private void onRemoveFailed(Exception e) {
+        Toast.makeText(this, "Failed to remove attendee: " + e.getMessage(), Toast.LENGTH_SHORT).show();
     }
 
     private int avatarResForKey(String key) {
@@ -193,4 +432,134 @@ public class ViewListActivity extends AppCompatActivity {
         }
     }
 
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    /**Rows are attendance documents; a profile never changes while the list is open*/
+    private static final DiffUtil.ItemCallback<Attendee> ATTENDEE_DIFF = new DiffUtil.ItemCallback<Attendee>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Attendee oldItem, @NonNull Attendee newItem) {
+            return TextUtils.equals(oldItem.getAttendanceDocId(), newItem.getAttendanceDocId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Attendee oldItem, @NonNull Attendee newItem) {
+            return oldItem.getProfile() == newItem.getProfile();
+        }
+    };
+
+    //to view each attendee
+    private class AttendeeAdapter extends ListAdapter<Attendee, AttendeeAdapter.AttendeeHolder> {
+        private final StableIds stableIds = new StableIds();
+
+        AttendeeAdapter() {
+            super(ATTENDEE_DIFF);
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return stableIds.idFor(getItem(position).getAttendanceDocId());
+        }
+
+        @NonNull
+        @Override
+        public AttendeeHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_attendee_card, parent, false);
+            return new AttendeeHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull AttendeeHolder holder, int position) {
+            holder.bind(getItem(position));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull AttendeeHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.contains(PAYLOAD_SELECTION)) {
+                holder.bindSelection(getItem(position));
+            } else {
+                onBindViewHolder(holder, position);
+            }
+        }
+
+        /**Entering or leaving selection mode rebinds only the checkboxes*/
+        void refreshSelection() {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        }
+
+        class AttendeeHolder extends RecyclerView.ViewHolder {
+            ImageView profilePic;
+            TextView usernameView, emailView;
+            ImageButton removeBtn;
+            CheckBox selectBox;
+
+            AttendeeHolder(@NonNull View itemView) {
+                super(itemView);
+                profilePic = itemView.findViewById(R.id.profile_pic);
+                usernameView = itemView.findViewById(R.id.username);
+                emailView = itemView.findViewById(R.id.email);
+                removeBtn = itemView.findViewById(R.id.remove_button);
+                selectBox = itemView.findViewById(R.id.select_checkbox);
+
+                // Look up the row's current item, so a recycled card never removes someone else
+                removeBtn.setOnClickListener(v -> {
+                    Attendee attendee = currentAttendee();
+                    if (attendee != null) removeAttendee(attendee);
+                });
+
+                // Long press starts selecting; while selecting, a tap toggles the card
+                itemView.setOnLongClickListener(v -> {
+                    Attendee attendee = currentAttendee();
+                    if (attendee == null || selecting || eventDocId == null) return false;
+                    setSelecting(true);
+                    toggleSelected(attendee);
+                    bindSelection(attendee);
+                    return true;
+                });
+                itemView.setOnClickListener(v -> {
+                    Attendee attendee = currentAttendee();
+                    if (attendee == null || !selecting) return;
+                    toggleSelected(attendee);
+                    bindSelection(attendee);
+                });
+            }
+
+            private Attendee currentAttendee() {
+                int position = getBindingAdapterPosition();
+                return position != RecyclerView.NO_POSITION ? getItem(position) : null;
+            }
+
+            void bindSelection(Attendee attendee) {
+                selectBox.setVisibility(selecting ? View.VISIBLE : View.GONE);
+                selectBox.setChecked(selected.contains(attendee.getAttendanceDocId()));
+                removeBtn.setVisibility(selecting ? View.GONE : View.VISIBLE);
+            }
+
+            void bind(Attendee attendee) {
+                UserProfile profile = attendee.getProfile();
+                String name = profile.getName();
+                String email = profile.getEmail();
+                String profileVal = profile.getProfilePic();
+                String phone = profile.getPhoneNumber();
+                Long genderValue = profile.getGender();
+                String genderText = (genderValue != null && genderValue == 1) ? "Male" : "Female";
+
+                usernameView.setText("Name: " + (name != null ? name : "Unknown"));
+                emailView.setText(
+                        "Email: " + (email != null ? email : "N/A") +
+                                "\nPhone: " + (phone != null ? phone : "N/A") +
+                                "\nGender: " + genderText
+                );
+
+                if (profileVal != null && (profileVal.startsWith("http://") || profileVal.startsWith("https://"))) {
+                    Glide.with(ViewListActivity.this).load(profileVal).into(profilePic);
+                } else {
+                    Glide.with(ViewListActivity.this).clear(profilePic);
+                    profilePic.setImageResource(avatarResForKey(profileVal));
+                }
+
+                bindSelection(attendee);
+            }
+        }
+    }
 }
@@ -3,8 +3,9 @@ package com.example.androidproject.ai;
 import android.content.Context;
 import android.util.Log;
 
-import com.example.androidproject.UserExploreActivity;
-import com.google.firebase.firestore.FirebaseFirestore;
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
@@ -12,30 +13,31 @@ import java.util.List;
 
 public class AIRecommendationManager {
     private static final String TAG = "AIRecommendationManager";
+    private static final int MAX_CANDIDATES = 50;
     private final Context context;
-    private final FirebaseFirestore db;
     private final OpenAIService openAIService;
 
     public AIRecommendationManager(Context context) {
         this.context = context;
-        this.db = FirebaseFirestore.getInstance();
         this.openAIService = new OpenAIService();
     }
 
-    public void getPersonalizedRecommendations(String userDescription, RecommendationCallback callback) {
+    /**
+     * Ask the AI to pick from the first MAX_CANDIDATES events of candidates, so the prompt and
+     * the reads stay bounded however large the catalog grows.
+     */
+    public void getPersonalizedRecommendations(Query candidates, String userDescription, RecommendationCallback callback) {
         if (userDescription == null || userDescription.trim().isEmpty()) {
             callback.onError("User description is empty");
             return;
         }
 
-        db.collection("events")
+        candidates.limit(MAX_CANDIDATES)
                 .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<UserExploreActivity.Event> allEvents = new ArrayList<>();
+                    List<Event> allEvents = new ArrayList<>();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        UserExploreActivity.Event event = document.toObject(UserExploreActivity.Event.class);
-                        event.setId(document.getId());
-                        allEvents.add(event);
+                        allEvents.add(EventCodec.decode(document));
                     }
 
                     generateAIRecommendations(userDescription, allEvents, callback);
@@ -46,7 +48,7 @@ public class AIRecommendationManager {
                 });
     }
 
-    private void generateAIRecommendations(String userDescription, List<UserExploreActivity.Event> events, RecommendationCallback callback) {
+    private void generateAIRecommendations(String userDescription, List<Event> events, RecommendationCallback callback) {
         String prompt = createRecommendationPrompt(userDescription, events);
 
         openAIService.getRecommendations(prompt, new OpenAIService.AICallback() {
@@ -55,7 +57,7 @@ public class AIRecommendationManager {
                 if (recommendedEventNames == null || recommendedEventNames.isEmpty()) {
                     callback.onSuccess(events); // fallback to all
                 } else {
-                    List<UserExploreActivity.Event> recommendedEvents = filterEventsByNames(events, recommendedEventNames);
+                    List<Event> recommendedEvents = filterEventsByNames(events, recommendedEventNames);
                     callback.onSuccess(recommendedEvents);
                 }
             }
@@ -68,12 +70,12 @@ public class AIRecommendationManager {
         });
     }
 
-    private String createRecommendationPrompt(String userDescription, List<UserExploreActivity.Event> events) {
+    private String createRecommendationPrompt(String userDescription, List<Event> events) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("The user wrote: \"").append(userDescription).append("\".\n\n");
         prompt.append("Here are the available events:\n");
 
-        for (UserExploreActivity.Event event : events) {
+        for (Event event : events) {
             prompt.append("- ").append(event.getEventName())
                     .append(": ")
                     .append(event.getDescription() != null ? event.getDescription() : "")
@@ -86,12 +88,12 @@ public class AIRecommendationManager {
         return prompt.toString();
     }
 
-    private List<UserExploreActivity.Event> filterEventsByNames(
-            List<UserExploreActivity.Event> events,
+    private List<Event> filterEventsByNames(
+            List<Event> events,
             List<String> recommendedNames) {
 
-        List<UserExploreActivity.Event> recommendedEvents = new ArrayList<>();
-        for (UserExploreActivity.Event event : events) {
+        List<Event> recommendedEvents = new ArrayList<>();
+        for (Event event : events) {
             for (String name : recommendedNames) {
                 if (event.getEventName() != null &&
                         event.getEventName().toLowerCase().contains(name.toLowerCase().trim())) {
@@ -104,7 +106,7 @@ public class AIRecommendationManager {
     }
 
     public interface RecommendationCallback {
-        void onSuccess(List<UserExploreActivity.Event> recommendedEvents);
+        void onSuccess(List<Event> recommendedEvents);
         void onError(String error);
     }
 }
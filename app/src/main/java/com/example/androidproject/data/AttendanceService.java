@@ -0,0 +1,252 @@
+package com.example.androidproject.data;
+
+import android.util.Log;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes to the attendance collection.
+ * Attendance documents are keyed "{eventID}_{userID}", so a user can hold at most one row per
+ * event and a transaction can read it by key. Joins run as one transaction that
+ * checks capacity and increments the event's currentAttendees counter atomically; leaves are
+ * the mirror transaction, which deletes the row and decrements the counter only if the row
+ * still exists, so a repeated or racing leave never counts anyone off twice.
+ * Each row also carries the attendee's name lowercased, so an event's attendees can be searched
+ * by name with one query on the event's own rows.
+ */
+public class AttendanceService {
+    private static final String TAG = "AttendanceService";
+    /**Attendee's name, trimmed and lowercased, for prefix search within an event*/
+    public static final String FIELD_NAME_KEY = "userNameLower";
+
+    private static AttendanceService instance;
+
+    private final FirebaseFirestore db;
+
+    public static synchronized AttendanceService getInstance() {
+        if (instance == null) {
+            instance = new AttendanceService(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private AttendanceService(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**Document id of the attendance row for a user and event*/
+    public static String attendanceKey(String eventID, String userID) {
+        return eventID + "_" + userID;
+    }
+
+    public DocumentReference attendanceRef(String eventID, String userID) {
+        return db.collection("attendance").document(attendanceKey(eventID, userID));
+    }
+
+    /**The stored search form of a name; "" for none*/
+    public static String nameKey(String name) {
+        return name != null ? name.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Join an event in a single transaction. Retrying (double taps, lost responses) is safe:
+     * if the attendance row already exists nothing is written.
+     *
+     * @param eventDocId Firestore document id of the event
+     * @param eventID    custom "E…" eventID stored on attendance rows
+     */
+    public void join(String eventDocId, String eventID, String userID, JoinCallback callback) {
+        DocumentReference eventRef = db.collection("events").document(eventDocId);
+        DocumentReference attendanceRef = attendanceRef(eventID, userID);
+        // User documents are keyed by the Firebase UID
+        FirebaseUser account = FirebaseAuth.getInstance().getCurrentUser();
+        DocumentReference userRef = account != null ? db.collection("user").document(account.getUid()) : null;
+
+        db.runTransaction(transaction -> {
+            // All reads must happen before any write in a transaction
+            DocumentSnapshot attendanceDoc = transaction.get(attendanceRef);
+            DocumentSnapshot eventDoc = transaction.get(eventRef);
+            DocumentSnapshot userDoc = userRef != null ? transaction.get(userRef) : null;
+
+            Long current = eventDoc.getLong("currentAttendees");
+            int count = current != null ? current.intValue() : 0;
+
+            if (attendanceDoc.exists()) return new JoinOutcome(JoinOutcome.ALREADY_JOINED, count);
+            if (!eventDoc.exists()) return new JoinOutcome(JoinOutcome.MISSING, count);
+
+            Long pax = eventDoc.getLong("pax");
+            if (pax != null && pax > 0 && count >= pax) return new JoinOutcome(JoinOutcome.FULL, count);
+
+            Map<String, Object> attendance = new HashMap<>();
+            attendance.put("eventID", eventID);
+            attendance.put("userID", userID);
+            attendance.put(FIELD_NAME_KEY, nameKey(userDoc != null ? userDoc.getString("name") : null));
+            transaction.set(attendanceRef, attendance);
+            transaction.update(eventRef, "currentAttendees", FieldValue.increment(1));
+            return new JoinOutcome(JoinOutcome.JOINED, count + 1);
+        }).addOnSuccessListener(outcome -> {
+            switch (outcome.status) {
+                case JoinOutcome.JOINED:
+                    AttendeeCountService.getInstance().put(eventID, outcome.count);
+                    callback.onJoined(outcome.count);
+                    break;
+                case JoinOutcome.ALREADY_JOINED:
+                    callback.onAlreadyJoined();
+                    break;
+                case JoinOutcome.FULL:
+                    callback.onFull();
+                    break;
+                default:
+                    callback.onError(new IllegalStateException("Event " + eventDocId + " no longer exists"));
+                    break;
+            }
+        }).addOnFailureListener(e -> {
+            Log.e(TAG, "Join transaction failed for " + eventID + ": " + e.getMessage());
+            callback.onError(e);
+        });
+    }
+
+    /**
+     * Leave an event in a single transaction: delete the attendance row and decrement the
+     * event's currentAttendees on the server, so the counter never depends on a locally held
+     * value. Retrying is safe: if the row is already gone nothing is written.
+     *
+     * @param eventDocId      Firestore document id of the event
+     * @param attendanceDocId the row to delete if already known (from JoinedEventsIndex);
+     *                        null looks it up first, which also finds legacy auto-ID rows
+     */
+    public void leave(String eventDocId, String eventID, String userID, String attendanceDocId, LeaveCallback callback) {
+        if (attendanceDocId != null) {
+            commitLeave(eventDocId, eventID, attendanceDocId, callback);
+            return;
+        }
+
+        db.collection("attendance")
+                .whereEqualTo("eventID", eventID)
+                .whereEqualTo("userID", userID)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    if (snapshot.isEmpty()) {
+                        callback.onNotJoined();
+                        return;
+                    }
+                    commitLeave(eventDocId, eventID, snapshot.getDocuments().get(0).getId(), callback);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Attendance lookup failed for " + eventID + ": " + e.getMessage());
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * An organizer removes someone's attendance: the same transaction as a leave, so a removal
+     * racing the user's own leave decrements the counter once.
+     */
+    public void removeAttendance(String eventDocId, String eventID, String attendanceDocId, LeaveCallback callback) {
+        commitLeave(eventDocId, eventID, attendanceDocId, callback);
+    }
+
+    private void commitLeave(String eventDocId, String eventID, String attendanceDocId, LeaveCallback callback) {
+        DocumentReference eventRef = db.collection("events").document(eventDocId);
+        DocumentReference attendanceRef = db.collection("attendance").document(attendanceDocId);
+
+        db.runTransaction(transaction -> {
+            // All reads must happen before any write in a transaction
+            DocumentSnapshot attendanceDoc = transaction.get(attendanceRef);
+            DocumentSnapshot eventDoc = transaction.get(eventRef);
+            if (!attendanceDoc.exists()) return false;
+
+            transaction.delete(attendanceRef);
+            Long current = eventDoc.getLong("currentAttendees");
+            if (eventDoc.exists() && current != null && current > 0) {
+                transaction.update(eventRef, "currentAttendees", FieldValue.increment(-1));
+            }
+            return true;
+        }).addOnSuccessListener(left -> {
+            if (!left) {
+                callback.onNotJoined();
+                return;
+            }
+            // The new count is only known server-side
+            AttendeeCountService.getInstance().invalidate(eventID);
+            callback.onLeft();
+        }).addOnFailureListener(e -> {
+            Log.e(TAG, "Leave transaction failed for " + eventID + ": " + e.getMessage());
+            callback.onError(e);
+        });
+    }
+
+    private static class JoinOutcome {
+        static final int JOINED = 0;
+        static final int ALREADY_JOINED = 1;
+        static final int FULL = 2;
+        static final int MISSING = 3;
+
+        final int status;
+        final int count;
+
+        JoinOutcome(int status, int count) {
+            this.status = status;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Carry a user's new name onto all their attendance rows, so name search keeps finding them.
+     * Safe to retry: every write sets the same value.
+     */
+    public void renameAttendee(String userID, String name, RenameCallback callback) {
+        String key = nameKey(name);
+        db.collection("attendance")
+                .whereEqualTo("userID", userID)
+                .get()
+                .onSuccessTask(snapshot -> {
+                    BatchWrites writes = new BatchWrites(db);
+                    for (DocumentSnapshot row : snapshot.getDocuments()) {
+                        writes.update(row.getReference(), FIELD_NAME_KEY, key);
+                    }
+                    return writes.commit();
+                })
+                .addOnSuccessListener(unused -> callback.onRenamed())
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to rename attendance rows of " + userID + ": " + e.getMessage());
+                    callback.onError(e);
+                });
+    }
+
+    public interface JoinCallback {
+        /**Called with the event's attendee count after this join*/
+        void onJoined(int newCount);
+
+        void onAlreadyJoined();
+
+        void onFull();
+
+        void onError(Exception e);
+    }
+
+    public interface RenameCallback {
+        void onRenamed();
+
+        void onError(Exception e);
+    }
+
+    public interface LeaveCallback {
+        void onLeft();
+
+        /**No attendance row exists for this user and event*/
+        void onNotJoined();
+
+        void onError(Exception e);
+    }
+}
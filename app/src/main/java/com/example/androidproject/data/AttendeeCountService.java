@@ -0,0 +1,154 @@
+package com.example.androidproject.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session-wide source of attendee counts keyed by eventID.
+ * Counts come from server-side aggregate queries (no attendance documents are downloaded)
+ * and are cached for a short time so the explore feed, timetable and details screens share them.
+ */
+public class AttendeeCountService {
+    private static final String TAG = "AttendeeCountService";
+    private static final long CACHE_TTL_MS = 30_000;
+
+    private static AttendeeCountService instance;
+
+    private final FirebaseFirestore db;
+    private final Map<String, CachedCount> cache = new HashMap<>();
+    private final Map<String, Task<AggregateQuerySnapshot>> inFlight = new HashMap<>();
+
+    public static synchronized AttendeeCountService getInstance() {
+        if (instance == null) {
+            instance = new AttendeeCountService(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private AttendeeCountService(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**Return the cached count for an event, or null if unknown or expired*/
+    public synchronized Integer peek(String eventID) {
+        CachedCount cached = cache.get(eventID);
+        if (cached == null || cached.isExpired()) return null;
+        return cached.count;
+    }
+
+    /**Record a count that is already known locally (e.g. after a join or leave)*/
+    public synchronized void put(String eventID, int count) {
+        if (eventID == null) return;
+        cache.put(eventID, new CachedCount(Math.max(0, count)));
+    }
+
+    public synchronized void invalidate(String eventID) {
+        cache.remove(eventID);
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        inFlight.clear();
+    }
+
+    public void getCount(String eventID, CountCallback callback) {
+        List<String> ids = new ArrayList<>();
+        ids.add(eventID);
+        getCounts(ids, counts -> {
+            Integer count = counts.get(eventID);
+            if (count != null) callback.onCount(count);
+        });
+    }
+
+    /**
+     * Resolve counts for many events at once. Fresh cache entries are served immediately,
+     * the rest are fetched as parallel aggregate queries and the callback fires once with
+     * every count that could be resolved.
+     */
+    public void getCounts(Collection<String> eventIDs, CountsCallback callback) {
+        Map<String, Integer> result = new HashMap<>();
+        Map<String, Task<AggregateQuerySnapshot>> pending = new HashMap<>();
+
+        synchronized (this) {
+            for (String eventID : new LinkedHashSet<>(eventIDs)) {
+                if (eventID == null) continue;
+
+                CachedCount cached = cache.get(eventID);
+                if (cached != null && !cached.isExpired()) {
+                    result.put(eventID, cached.count);
+                    continue;
+                }
+
+                // Share one request between callers asking for the same event
+                Task<AggregateQuerySnapshot> task = inFlight.get(eventID);
+                if (task == null) {
+                    task = db.collection("attendance")
+                            .whereEqualTo("eventID", eventID)
+                            .count()
+                            .get(AggregateSource.SERVER);
+                    inFlight.put(eventID, task);
+                }
+                pending.put(eventID, task);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            callback.onCounts(result);
+            return;
+        }
+
+        Tasks.whenAllComplete(pending.values()).addOnCompleteListener(done -> {
+            synchronized (this) {
+                for (Map.Entry<String, Task<AggregateQuerySnapshot>> entry : pending.entrySet()) {
+                    String eventID = entry.getKey();
+                    Task<AggregateQuerySnapshot> task = entry.getValue();
+                    if (inFlight.get(eventID) == task) inFlight.remove(eventID);
+
+                    if (task.isSuccessful() && task.getResult() != null) {
+                        int count = (int) task.getResult().getCount();
+                        cache.put(eventID, new CachedCount(count));
+                        result.put(eventID, count);
+                    } else {
+                        Log.e(TAG, "Failed to count attendees for " + eventID, task.getException());
+                    }
+                }
+            }
+            callback.onCounts(result);
+        });
+    }
+
+    private static class CachedCount {
+        final int count;
+        final long fetchedAt;
+
+        CachedCount(int count) {
+            this.count = count;
+            this.fetchedAt = SystemClock.elapsedRealtime();
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - fetchedAt > CACHE_TTL_MS;
+        }
+    }
+
+    public interface CountCallback {
+        void onCount(int count);
+    }
+
+    public interface CountsCallback {
+        void onCounts(Map<String, Integer> counts);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+
+import java.util.List;
+
+/**
+ * One-shot repair of the currentAttendees counters on an admin's events, which drifted while
+ * joins, leaves and removals still changed rows and counter separately. Each event's attendance
+ * rows are counted on the server and the counter is set to that count in a transaction, but only
+ * if the counter still holds the value read before counting: every join and leave now moves the
+ * counter together with its row, so an unchanged counter means the count is still current. An
+ * event whose counter moved meanwhile is left for the next run, and the device records the
+ * repair as done only once every event was set.
+ */
+public final class AttendeeCounterBackfill {
+    private static final String TAG = "AttendeeCounterBackfill";
+    private static final String PREFS_NAME = "migrations";
+    private static final String KEY_DONE = "attendeeCounterBackfillDone:";
+
+    private static boolean running = false;
+
+    private AttendeeCounterBackfill() {}
+
+    public static synchronized void runOnce(Context context, String adminID) {
+        if (adminID == null) return;
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (running || prefs.getBoolean(KEY_DONE + adminID, false)) return;
+        running = true;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        // From the server: the compare below is only sound against a counter read before the count
+        db.collection("events").whereEqualTo("adminID", adminID).get(Source.SERVER)
+                .addOnSuccessListener(snapshot ->
+                        repairNext(db, snapshot.getDocuments(), 0, true, prefs, adminID))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Counter repair read failed: " + e.getMessage());
+                    finish(prefs, adminID, false);
+                });
+    }
+
+    /**Repair one event at a time; allSet turns false as soon as one event could not be set*/
+    private static void repairNext(FirebaseFirestore db, List<DocumentSnapshot> events, int index,
+                                   boolean allSet, SharedPreferences prefs, String adminID) {
+        if (index == events.size()) {
+            Log.d(TAG, "Counter repair over " + events.size() + " event(s), complete: " + allSet);
+            finish(prefs, adminID, allSet);
+            return;
+        }
+        DocumentSnapshot eventDoc = events.get(index);
+        String eventID = eventDoc.getString("eventID");
+        if (eventID == null) {
+            repairNext(db, events, index + 1, allSet, prefs, adminID);
+            return;
+        }
+        Long before = eventDoc.getLong("currentAttendees");
+        DocumentReference eventRef = eventDoc.getReference();
+
+        db.collection("attendance")
+                .whereEqualTo("eventID", eventID)
+                .count()
+                .get(AggregateSource.SERVER)
+                .continueWithTask(task -> {
+                    long count = task.getResult().getCount();
+                    return db.runTransaction(transaction -> {
+                        DocumentSnapshot current = transaction.get(eventRef);
+                        if (!current.exists()) return true;
+                        Long now = current.getLong("currentAttendees");
+                        if (before == null ? now != null : !before.equals(now)) {
+                            // A join or leave landed after the count; try again next run
+                            return false;
+                        }
+                        if (now == null || now != count) {
+                            transaction.update(eventRef, "currentAttendees", count);
+                        }
+                        return true;
+                    });
+                })
+                .addOnSuccessListener(set -> {
+                    if (set) AttendeeCountService.getInstance().invalidate(eventID);
+                    repairNext(db, events, index + 1, allSet && set, prefs, adminID);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Counter repair failed for " + eventID + ": " + e.getMessage());
+                    repairNext(db, events, index + 1, false, prefs, adminID);
+                });
+    }
+
+    private static synchronized void finish(SharedPreferences prefs, String adminID, boolean done) {
+        running = false;
+        if (done) prefs.edit().putBoolean(KEY_DONE + adminID, true).apply();
+    }
+}
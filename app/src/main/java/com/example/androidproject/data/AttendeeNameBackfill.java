@@ -0,0 +1,109 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.androidproject.model.UserProfile;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-shot migration that copies attendee names onto attendance rows written before rows
+ * carried {@link AttendanceService#FIELD_NAME_KEY}, so name search over an event's rows finds
+ * everyone. Runs from an admin session and walks the attendance collection a page at a time;
+ * once every row carries the field the device records it and marks
+ * {@link CatalogMigrations#ATTENDEE_NAMES}. A failed run, or one that met a row whose user could
+ * not be resolved, is retried on the next admin login.
+ */
+public final class AttendeeNameBackfill {
+    private static final String TAG = "AttendeeNameBackfill";
+    private static final String PREFS_NAME = "migrations";
+    private static final String KEY_DONE = "attendeeNameBackfillDone";
+    // Rows read and written per round trip
+    private static final int PAGE_SIZE = 200;
+
+    private static boolean running = false;
+
+    private AttendeeNameBackfill() {}
+
+    public static synchronized void runOnce(Context context) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (running || prefs.getBoolean(KEY_DONE, false)) return;
+        running = true;
+
+        migratePage(FirebaseFirestore.getInstance(), null, 0, true, prefs);
+    }
+
+    /**Migrate the page after cursor, then move on to the next one until a short page ends the run*/
+    private static void migratePage(FirebaseFirestore db, DocumentSnapshot cursor, int migrated,
+                                    boolean complete, SharedPreferences prefs) {
+        Query query = db.collection("attendance")
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (cursor != null) query = query.startAfter(cursor);
+
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> legacy = new ArrayList<>();
+                    List<String> userIDs = new ArrayList<>();
+                    for (DocumentSnapshot row : snapshot.getDocuments()) {
+                        if (row.contains(AttendanceService.FIELD_NAME_KEY)) continue;
+                        legacy.add(row);
+                        String userID = row.getString("userID");
+                        if (userID != null) userIDs.add(userID);
+                    }
+
+                    List<DocumentSnapshot> rows = snapshot.getDocuments();
+                    boolean last = rows.size() < PAGE_SIZE;
+                    DocumentSnapshot next = rows.isEmpty() ? cursor : rows.get(rows.size() - 1);
+
+                    UserProfileCache.getInstance().getProfiles(userIDs, profiles -> {
+                        BatchWrites writes = new BatchWrites(db);
+                        boolean resolved = true;
+                        for (DocumentSnapshot row : legacy) {
+                            UserProfile profile = profiles.get(row.getString("userID"));
+                            if (profile == null) {
+                                Log.w(TAG, "No user found for attendance row " + row.getId());
+                                resolved = false;
+                                continue;
+                            }
+                            writes.update(row.getReference(), AttendanceService.FIELD_NAME_KEY,
+                                    AttendanceService.nameKey(profile.getName()));
+                        }
+
+                        boolean pageComplete = complete && resolved;
+                        writes.commit()
+                                .addOnSuccessListener(unused -> {
+                                    int total = migrated + writes.size();
+                                    if (!last) {
+                                        migratePage(db, next, total, pageComplete, prefs);
+                                        return;
+                                    }
+                                    Log.d(TAG, "Backfilled names on " + total + " row(s), complete: " + pageComplete);
+                                    if (pageComplete) CatalogMigrations.markDone(CatalogMigrations.ATTENDEE_NAMES);
+                                    finish(prefs, pageComplete);
+                                })
+                                .addOnFailureListener(e -> {
+                                    Log.e(TAG, "Backfill commit failed: " + e.getMessage());
+                                    finish(prefs, false);
+                                });
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Backfill read failed: " + e.getMessage());
+                    finish(prefs, false);
+                });
+    }
+
+    private static synchronized void finish(SharedPreferences prefs, boolean done) {
+        running = false;
+        if (done) prefs.edit().putBoolean(KEY_DONE, true).apply();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.androidproject.data;
+
+import android.util.Log;
+
+import com.example.androidproject.model.Attendee;
+import com.example.androidproject.model.UserProfile;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor-paginated attendee list of one event.
+ * Attendance rows are read a page at a time in document id order (startAfter the previous
+ * page's last row), and each page's profiles are resolved through {@link UserProfileCache},
+ * so the cost of showing the list depends on how far the user scrolls, not on the event size.
+ * Name search runs as one prefix query on the lowercased names stored on the event's
+ * attendance rows (see firestore.indexes.json).
+ * Responses that arrive after a reset or a newer search are dropped.
+ */
+public class AttendeePager {
+    private static final String TAG = "AttendeePager";
+    // Most name matches considered per search; enough for a person to pick from
+    private static final int SEARCH_LIMIT = 50;
+    // Sorts after every other character, closing the prefix range
+    private static final String PREFIX_END = "\uf8ff";
+
+    private final FirebaseFirestore db;
+    private final UserProfileCache profiles;
+    private final String eventID;
+    private final int pageSize;
+
+    private DocumentSnapshot cursor;
+    private boolean loading = false;
+    private boolean reachedEnd = false;
+    // Bumped on reset and search, so late responses to an older request are ignored
+    private int generation = 0;
+
+    public AttendeePager(String eventID, int pageSize) {
+        this.db = FirebaseFirestore.getInstance();
+        this.profiles = UserProfileCache.getInstance();
+        this.eventID = eventID;
+        this.pageSize = pageSize;
+    }
+
+    public boolean hasMore() {
+        return !reachedEnd;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**Start over from the first page*/
+    public void reset() {
+        generation++;
+        cursor = null;
+        loading = false;
+        reachedEnd = false;
+    }
+
+    /**Load the page after the last one delivered; does nothing while a page is loading or at the end*/
+    public void loadNext(Callback callback) {
+        if (loading || reachedEnd) return;
+        loading = true;
+        int requested = generation;
+
+        Query query = db.collection("attendance")
+                .whereEqualTo("eventID", eventID)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize);
+        if (cursor != null) query = query.startAfter(cursor);
+
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    if (requested != generation) return;
+
+                    List<DocumentSnapshot> rows = snapshot.getDocuments();
+                    if (!rows.isEmpty()) cursor = rows.get(rows.size() - 1);
+                    if (rows.size() < pageSize) reachedEnd = true;
+
+                    Map<String, String> rowByUser = new LinkedHashMap<>();
+                    for (DocumentSnapshot row : rows) {
+                        String userID = row.getString("userID");
+                        if (userID == null || userID.isEmpty()) {
+                            Log.w(TAG, "Attendance doc missing userID: " + row.getId());
+                            continue;
+                        }
+                        rowByUser.put(userID, row.getId());
+                    }
+
+                    profiles.getProfiles(rowByUser.keySet(), resolved -> {
+                        if (requested != generation) return;
+                        loading = false;
+                        // Attendance order, whatever order the profiles arrived in
+                        callback.onPage(toAttendees(rowByUser, resolved), reachedEnd);
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    if (requested != generation) return;
+                    loading = false;
+                    Log.e(TAG, "Failed to load attendees: " + e.getMessage());
+                    callback.onError(e);
+                });
+    }
+
+    /**
+     * Attendees of this event whose name starts with the query, sorted by name, at most
+     * SEARCH_LIMIT of them. Matches on the lowercased name stored on each attendance row, so
+     * only this event's rows are read. Paging stops until the next reset; the result is
+     * delivered as a single last page, and a failed query goes to onError.
+     */
+    public void search(String query, Callback callback) {
+        reset();
+        reachedEnd = true;
+        searchRows(AttendanceService.nameKey(query), generation, callback);
+    }
+
+    private void searchRows(String prefix, int requested, Callback callback) {
+        db.collection("attendance")
+                .whereEqualTo("eventID", eventID)
+                .orderBy(AttendanceService.FIELD_NAME_KEY)
+                .startAt(prefix)
+                .endAt(prefix + PREFIX_END)
+                .limit(SEARCH_LIMIT)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    if (requested != generation) return;
+
+                    Map<String, String> rowByUser = new LinkedHashMap<>();
+                    for (DocumentSnapshot row : snapshot.getDocuments()) {
+                        String userID = row.getString("userID");
+                        if (userID != null) rowByUser.put(userID, row.getId());
+                    }
+                    // Name order, as the query returned the rows
+                    profiles.getProfiles(rowByUser.keySet(), resolved -> {
+                        if (requested != generation) return;
+                        callback.onPage(toAttendees(rowByUser, resolved), true);
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    if (requested != generation) return;
+                    Log.e(TAG, "Attendee search failed: " + e.getMessage());
+                    callback.onError(e);
+                });
+    }
+
+    private static List<Attendee> toAttendees(Map<String, String> rowByUser, Map<String, UserProfile> resolved) {
+        List<Attendee> attendees = new ArrayList<>();
+        for (Map.Entry<String, String> row : rowByUser.entrySet()) {
+            UserProfile profile = resolved.get(row.getKey());
+            if (profile != null) {
+                attendees.add(new Attendee(row.getValue(), profile));
+            } else {
+                Log.w(TAG, "No user found with userID: " + row.getKey());
+            }
+        }
+        return attendees;
+    }
+
+    public interface Callback {
+        /**One page of attendees, in display order; isLast when nothing follows it*/
+        void onPage(List<Attendee> attendees, boolean isLast);
+
+        void onError(Exception e);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.androidproject.data;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects any number of writes into batches small enough for Firestore to accept.
+ */
+final class BatchWrites {
+    // Firestore rejects batches of more than 500 writes
+    static final int MAX_WRITES = 500;
+
+    private final FirebaseFirestore db;
+    private final List<WriteBatch> batches = new ArrayList<>();
+    private int size = 0;
+
+    BatchWrites(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    void set(DocumentReference ref, Map<String, Object> data, SetOptions options) {
+        next().set(ref, data, options);
+    }
+
+    void update(DocumentReference ref, String field, Object value) {
+        next().update(ref, field, value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**Commit the batches one after another; the first failure stops the rest and fails the task*/
+    Task<Void> commit() {
+        Task<Void> chain = Tasks.forResult(null);
+        for (WriteBatch batch : batches) {
+            chain = chain.onSuccessTask(unused -> batch.commit());
+        }
+        return chain;
+    }
+
+    private WriteBatch next() {
+        if (size % MAX_WRITES == 0) batches.add(db.batch());
+        size++;
+        return batches.get(batches.size() - 1);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes many attendees of one event in chunks, each chunk one transaction. A transaction
+ * reads the chunk's attendance rows, deletes those that still exist and decrements the event's
+ * currentAttendees once by that number, so rows and counter change together and a row that
+ * another client already removed is never counted off again. Chunks run one after another and
+ * the rows still to remove are saved after every chunk, so an interrupted removal can be
+ * resumed from where it stopped; replaying a chunk that was already committed writes nothing.
+ */
+public class BulkAttendeeRemoval {
+    private static final String TAG = "BulkAttendeeRemoval";
+    private static final String PREFS_NAME = "bulk_removals";
+    private static final String KEY_EVENT_ID = "eventID:";
+    private static final String KEY_REMAINING = "remaining:";
+    private static final String KEY_TOTAL = "total:";
+    private static final String KEY_REMOVED = "removed:";
+    // Rows per transaction: well under the 500-write limit (chunk deletes plus the counter
+    // update), and small because each row is a read that holds the event's counter meanwhile
+    private static final int CHUNK_SIZE = 50;
+
+    private static BulkAttendeeRemoval instance;
+
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+    // Event doc id of the removal in progress; one at a time
+    private String running;
+    private Listener listener;
+
+    public static synchronized BulkAttendeeRemoval getInstance(Context context) {
+        if (instance == null) {
+            instance = new BulkAttendeeRemoval(context.getApplicationContext(), FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private BulkAttendeeRemoval(Context appContext, FirebaseFirestore db) {
+        this.db = db;
+        this.prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public boolean isRunning(String eventDocId) {
+        return eventDocId != null && eventDocId.equals(running);
+    }
+
+    /**Rows an interrupted removal for this event still has to remove; 0 if none*/
+    public int pendingCount(String eventDocId) {
+        return prefs.getStringSet(KEY_REMAINING + eventDocId, new HashSet<>()).size();
+    }
+
+    /**Receive progress of a removal already running for this event (e.g. after a rotation)*/
+    public void attach(String eventDocId, Listener listener) {
+        if (isRunning(eventDocId)) this.listener = listener;
+    }
+
+    /**Stop reporting to the screen; the removal itself carries on*/
+    public void detach(Listener listener) {
+        if (this.listener == listener) this.listener = null;
+    }
+
+    /**
+     * Remove these attendance rows. The selection is saved before anything is written.
+     *
+     * @param eventDocId       Firestore document id of the event
+     * @param eventID          custom "E…" eventID stored on attendance rows
+     * @param attendanceDocIds rows to delete
+     */
+    public void start(String eventDocId, String eventID, Collection<String> attendanceDocIds, Listener listener) {
+        if (running != null) {
+            listener.onError(new IllegalStateException("Another removal is still running"));
+            return;
+        }
+        Set<String> rows = new LinkedHashSet<>(attendanceDocIds);
+        prefs.edit()
+                .putString(KEY_EVENT_ID + eventDocId, eventID)
+                .putStringSet(KEY_REMAINING + eventDocId, rows)
+                .putInt(KEY_TOTAL + eventDocId, rows.size())
+                .putInt(KEY_REMOVED + eventDocId, 0)
+                .commit();
+        resume(eventDocId, listener);
+    }
+
+    /**Continue an interrupted removal for this event*/
+    public void resume(String eventDocId, Listener listener) {
+        if (running != null) {
+            listener.onError(new IllegalStateException("Another removal is still running"));
+            return;
+        }
+        String eventID = prefs.getString(KEY_EVENT_ID + eventDocId, null);
+        if (eventID == null) {
+            listener.onFinished(0);
+            return;
+        }
+        running = eventDocId;
+        this.listener = listener;
+        commitNext(eventDocId, eventID);
+    }
+
+    /**Forget an interrupted removal without finishing it*/
+    public void discard(String eventDocId) {
+        if (isRunning(eventDocId)) return;
+        forget(eventDocId);
+    }
+
+    private void commitNext(String eventDocId, String eventID) {
+        List<String> remaining = new ArrayList<>(prefs.getStringSet(KEY_REMAINING + eventDocId, new HashSet<>()));
+        int total = prefs.getInt(KEY_TOTAL + eventDocId, remaining.size());
+        int removedSoFar = prefs.getInt(KEY_REMOVED + eventDocId, 0);
+        if (remaining.isEmpty()) {
+            finish(eventDocId, eventID, removedSoFar);
+            return;
+        }
+
+        List<String> chunk = new ArrayList<>(remaining.subList(0, Math.min(CHUNK_SIZE, remaining.size())));
+        DocumentReference eventRef = db.collection("events").document(eventDocId);
+
+        db.runTransaction(transaction -> {
+            // All reads must happen before any write in a transaction
+            List<DocumentReference> existing = new ArrayList<>();
+            for (String attendanceDocId : chunk) {
+                DocumentReference ref = db.collection("attendance").document(attendanceDocId);
+                if (transaction.get(ref).exists()) existing.add(ref);
+            }
+            DocumentSnapshot eventDoc = transaction.get(eventRef);
+
+            for (DocumentReference ref : existing) {
+                transaction.delete(ref);
+            }
+            Long current = eventDoc.getLong("currentAttendees");
+            if (eventDoc.exists() && current != null && !existing.isEmpty()) {
+                // Never below zero, whatever the counter held before
+                transaction.update(eventRef, "currentAttendees",
+                        FieldValue.increment(-Math.min(existing.size(), Math.max(0, current))));
+            }
+            return existing.size();
+        }).addOnSuccessListener(deleted -> {
+            Set<String> left = new HashSet<>(remaining);
+            left.removeAll(chunk);
+            prefs.edit()
+                    .putStringSet(KEY_REMAINING + eventDocId, left)
+                    .putInt(KEY_REMOVED + eventDocId, removedSoFar + deleted)
+                    .apply();
+
+            if (listener != null) {
+                listener.onChunkRemoved(chunk, deleted);
+                listener.onProgress(total - left.size(), total);
+            }
+            commitNext(eventDocId, eventID);
+        }).addOnFailureListener(e -> {
+            // Nothing of this chunk was written; the saved rows still include it
+            Log.e(TAG, "Removal transaction failed for " + eventID + ": " + e.getMessage());
+            running = null;
+            if (listener != null) listener.onError(e);
+        });
+    }
+
+    private void finish(String eventDocId, String eventID, int removed) {
+        forget(eventDocId);
+        running = null;
+        // The new count is only known server-side
+        AttendeeCountService.getInstance().invalidate(eventID);
+        Log.d(TAG, "Removed " + removed + " attendees of " + eventDocId);
+        if (listener != null) listener.onFinished(removed);
+        listener = null;
+    }
+
+    private void forget(String eventDocId) {
+        prefs.edit()
+                .remove(KEY_EVENT_ID + eventDocId)
+                .remove(KEY_REMAINING + eventDocId)
+                .remove(KEY_TOTAL + eventDocId)
+                .remove(KEY_REMOVED + eventDocId)
+                .apply();
+    }
+
+    /**Callbacks run on the main thread*/
+    public interface Listener {
+        /**These rows are gone; deleted of them still existed and were counted off the event*/
+        void onChunkRemoved(List<String> attendanceDocIds, int deleted);
+
+        void onProgress(int removed, int total);
+
+        void onFinished(int removed);
+
+        /**The removal stopped; what is left can be resumed*/
+        void onError(Exception e);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.androidproject.data;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared record of which one-shot migrations have completed for the whole catalog, kept in a
+ * single meta/migrations document. A backfill marks its flag only after every document it
+ * migrates was written; readers use the flags to decide whether a server-side filter on the
+ * migrated field would hide events that were never migrated.
+ */
+public final class CatalogMigrations {
+    private static final String TAG = "CatalogMigrations";
+    private static final String COLLECTION = "meta";
+    private static final String DOCUMENT = "migrations";
+
+    /**Every event carries startEpochMs and endEpochMs*/
+    public static final String EVENT_TIMES = "eventTimes";
+    /**Every event carries a numeric genderSpec*/
+    public static final String GENDER_SPEC = "genderSpec";
+    /**Every attendance row carries the attendee's lowercased name*/
+    public static final String ATTENDEE_NAMES = "attendeeNames";
+
+    private CatalogMigrations() {}
+
+    /**Deliver the completed flags; on failure every migration counts as not done*/
+    public static void load(Callback callback) {
+        FirebaseFirestore.getInstance().collection(COLLECTION).document(DOCUMENT).get()
+                .addOnSuccessListener(doc -> callback.onLoaded(new Flags(doc)))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to read migration flags: " + e.getMessage());
+                    callback.onLoaded(new Flags(null));
+                });
+    }
+
+    static void markDone(String migration) {
+        Map<String, Object> flag = new HashMap<>();
+        flag.put(migration, true);
+        FirebaseFirestore.getInstance().collection(COLLECTION).document(DOCUMENT)
+                .set(flag, SetOptions.merge())
+                .addOnFailureListener(e ->
+                        Log.e(TAG, "Failed to record " + migration + ": " + e.getMessage()));
+    }
+
+    public static class Flags {
+        private final DocumentSnapshot doc;
+
+        Flags(DocumentSnapshot doc) {
+            this.doc = doc;
+        }
+
+        public boolean isDone(String migration) {
+            return doc != null && Boolean.TRUE.equals(doc.getBoolean(migration));
+        }
+    }
+
+    public interface Callback {
+        void onLoaded(Flags flags);
+    }
+}
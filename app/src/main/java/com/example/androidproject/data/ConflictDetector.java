@@ -0,0 +1,112 @@
+package com.example.androidproject.data;
+
+import com.example.androidproject.model.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over the user's joined events, answering "does this event overlap
+ * anything on my timetable?" without touching the network.
+ * Intervals are kept in start order and the tree is implicit over that array: the root of
+ * [lo, hi) is its midpoint and each node stores the latest end in its subtree, so whole
+ * subtrees that finish before the query starts are skipped. A check is O(log n + k) and
+ * {@link #firstConflict} allocates nothing, so it can run for every row bound during a fling.
+ * Intervals are half-open: an event ending at 10:00 does not clash with one starting at 10:00.
+ */
+public final class ConflictDetector {
+    public static final ConflictDetector EMPTY = new ConflictDetector(new Event[0]);
+
+    private final Event[] events;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private ConflictDetector(Event[] events) {
+        this.events = events;
+        this.starts = new long[events.length];
+        this.ends = new long[events.length];
+        this.maxEnd = new long[events.length];
+        for (int i = 0; i < events.length; i++) {
+            starts[i] = events[i].getStartEpochMs();
+            ends[i] = endOf(events[i]);
+        }
+        buildMaxEnd(0, events.length);
+    }
+
+    /**Build a detector over the given events; events without a start time are left out*/
+    public static ConflictDetector build(Collection<Event> joined) {
+        List<Event> timed = new ArrayList<>(joined.size());
+        for (Event event : joined) {
+            if (event.getStartEpochMs() != Event.NO_TIME) timed.add(event);
+        }
+        if (timed.isEmpty()) return EMPTY;
+
+        Event[] events = timed.toArray(new Event[0]);
+        Arrays.sort(events, Comparator.comparingLong(Event::getStartEpochMs));
+        return new ConflictDetector(events);
+    }
+
+    /**The earliest-starting joined event overlapping the candidate (other than itself), or null*/
+    public Event firstConflict(Event candidate) {
+        if (candidate == null || candidate.getStartEpochMs() == Event.NO_TIME) return null;
+        return first(0, events.length, candidate.getStartEpochMs(), endOf(candidate), candidate);
+    }
+
+    /**Every joined event overlapping the candidate, in start order*/
+    public List<Event> conflictsWith(Event candidate) {
+        List<Event> out = new ArrayList<>();
+        if (candidate == null || candidate.getStartEpochMs() == Event.NO_TIME) return out;
+        collect(0, events.length, candidate.getStartEpochMs(), endOf(candidate), candidate, out);
+        return out;
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnd(lo, mid), buildMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    private Event first(int lo, int hi, long start, long end, Event candidate) {
+        if (lo >= hi) return null;
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends after the query begins
+        if (maxEnd[mid] <= start) return null;
+
+        Event found = first(lo, mid, start, end, candidate);
+        if (found != null) return found;
+        // This node and everything to its right start too late
+        if (starts[mid] >= end) return null;
+        if (ends[mid] > start && !isSame(events[mid], candidate)) return events[mid];
+        return first(mid + 1, hi, start, end, candidate);
+    }
+
+    private void collect(int lo, int hi, long start, long end, Event candidate, List<Event> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= start) return;
+
+        collect(lo, mid, start, end, candidate, out);
+        if (starts[mid] >= end) return;
+        if (ends[mid] > start && !isSame(events[mid], candidate)) out.add(events[mid]);
+        collect(mid + 1, hi, start, end, candidate, out);
+    }
+
+    /**Events with a missing or inverted end are treated as a single instant at their start*/
+    private static long endOf(Event event) {
+        long start = event.getStartEpochMs();
+        long end = event.getEndEpochMs();
+        return end == Event.NO_TIME || end <= start ? start + 1 : end;
+    }
+
+    private static boolean isSame(Event a, Event b) {
+        if (a == b) return true;
+        if (a.getId() != null && a.getId().equals(b.getId())) return true;
+        return a.getEventID() != null && a.getEventID().equals(b.getEventID());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.androidproject.data;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cursor-paginated, live view over an ordered events query.
+ * Each page is its own snapshot listener (startAfter the previous page's last document,
+ * limited to pageSize), so edits inside loaded pages arrive as deltas. At most maxPages
+ * pages stay attached; pages that scroll far away are detached and re-attached from their
+ * saved cursor when the user comes back. A detached page's documents simply drop out of
+ * orderedIds(); the listener is not called for it, so an eviction never triggers another
+ * round of paging by itself. A document pushed out of a full page by an insert above it shows
+ * up again the next time that page is attached.
+ */
+public class EventFeedPager {
+    private static final String TAG = "EventFeedPager";
+
+    private final Query baseQuery;
+    private final int pageSize;
+    private final int maxPages;
+    private final int prefetchDistance;
+    private final Listener listener;
+
+    private final List<Page> pages = new ArrayList<>();
+    // Attached pages are pages[first..last]
+    private int first = 0;
+    private int last = -1;
+
+    public EventFeedPager(Query baseQuery, int pageSize, int maxPages, int prefetchDistance, Listener listener) {
+        this.baseQuery = baseQuery;
+        this.pageSize = pageSize;
+        this.maxPages = Math.max(2, maxPages);
+        this.prefetchDistance = prefetchDistance;
+        this.listener = listener;
+    }
+
+    /**Attach the first page; only one small page is needed before the feed can render*/
+    public void start() {
+        if (!pages.isEmpty()) return;
+        Page page = new Page(null);
+        pages.add(page);
+        last = 0;
+        attach(page);
+    }
+
+    /**Detach every page (call from onDestroy)*/
+    public void stop() {
+        for (Page page : pages) {
+            detach(page);
+        }
+        pages.clear();
+        first = 0;
+        last = -1;
+    }
+
+    /**
+     * Called as the list scrolls; loads or re-attaches one page near one end of the window.
+     * Only one direction moves per call: on a list short enough to be near both ends, paging
+     * both ways would evict what the other direction just attached, over and over.
+     */
+    public void onVisibleRange(int firstVisible, int lastVisible, int itemCount) {
+        if (last < 0) return;
+        if (itemCount - 1 - lastVisible <= prefetchDistance) loadNext();
+        else if (firstVisible <= prefetchDistance) loadPrevious();
+    }
+
+    /**Ids of every attached document, in query order*/
+    public List<String> orderedIds() {
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        for (int i = first; i <= last; i++) {
+            ids.addAll(pages.get(i).ids);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private void loadNext() {
+        Page tail = pages.get(last);
+        if (!tail.loaded) return;
+
+        Page next;
+        if (last + 1 < pages.size()) {
+            next = pages.get(last + 1); // previously evicted, cursor still known
+        } else {
+            if (tail.ids.size() < pageSize || tail.lastDoc == null) return; // reached the end
+            next = new Page(tail.lastDoc);
+            pages.add(next);
+        }
+        last++;
+        attach(next);
+
+        if (last - first + 1 > maxPages) {
+            detach(pages.get(first));
+            first++;
+        }
+    }
+
+    private void loadPrevious() {
+        if (first == 0 || !pages.get(first).loaded) return;
+
+        first--;
+        attach(pages.get(first));
+
+        if (last - first + 1 > maxPages) {
+            detach(pages.get(last));
+            last--;
+        }
+    }
+
+    private void attach(Page page) {
+        if (page.registration != null) return;
+
+        Query query = page.startAfter != null
+                ? baseQuery.startAfter(page.startAfter).limit(pageSize)
+                : baseQuery.limit(pageSize);
+
+        page.registration = query.addSnapshotListener((snapshot, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Page listener failed: " + e.getMessage());
+                listener.onFeedError(e);
+                return;
+            }
+            if (snapshot == null) return;
+
+            List<QueryDocumentSnapshot> upserts = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    removed.add(change.getDocument().getId());
+                } else {
+                    upserts.add(change.getDocument());
+                }
+            }
+
+            page.ids.clear();
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                page.ids.add(doc.getId());
+            }
+            List<DocumentSnapshot> docs = snapshot.getDocuments();
+            page.lastDoc = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+            page.loaded = true;
+
+            listener.onFeedChanged(upserts, stillOrphaned(removed));
+        });
+    }
+
+    private void detach(Page page) {
+        if (page.registration != null) {
+            page.registration.remove();
+            page.registration = null;
+        }
+        page.ids.clear();
+        page.loaded = false;
+    }
+
+    /**Removed ids that no attached page still holds (a doc can move between adjacent pages)*/
+    private List<String> stillOrphaned(List<String> ids) {
+        if (ids.isEmpty()) return ids;
+        Set<String> held = new HashSet<>();
+        for (int i = first; i <= last; i++) {
+            held.addAll(pages.get(i).ids);
+        }
+        List<String> orphaned = new ArrayList<>();
+        for (String id : ids) {
+            if (!held.contains(id)) orphaned.add(id);
+        }
+        return orphaned;
+    }
+
+    private static class Page {
+        final DocumentSnapshot startAfter;
+        final List<String> ids = new ArrayList<>();
+        DocumentSnapshot lastDoc;
+        ListenerRegistration registration;
+        boolean loaded = false;
+
+        Page(DocumentSnapshot startAfter) {
+            this.startAfter = startAfter;
+        }
+    }
+
+    public interface Listener {
+        /**Documents added/modified in an attached page, and ids no attached page holds any more*/
+        void onFeedChanged(List<QueryDocumentSnapshot> upserts, List<String> removedIds);
+
+        void onFeedError(Exception e);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.androidproject.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over event text (name, venue, description).
+ * Tokens are kept sorted so every query word is matched as a prefix with a sub-map lookup;
+ * a document matches when all query words match. Documents are keyed by Firestore doc id
+ * and can be added, updated or removed one at a time as the catalog changes.
+ */
+public class EventSearchIndex {
+
+    // token -> slots of the documents containing it
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    // Firestore doc id <-> dense slot number used inside posting lists
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<String> idBySlot = new ArrayList<>();
+    private final List<Set<String>> tokensBySlot = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    /**Index a document, replacing whatever was indexed for the same id before*/
+    public synchronized void put(String id, String... fields) {
+        if (id == null) return;
+        remove(id);
+
+        Set<String> tokens = new HashSet<>();
+        for (String field : fields) {
+            tokenize(field, tokens);
+        }
+
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = idBySlot.size();
+            idBySlot.add(id);
+            tokensBySlot.add(tokens);
+        } else {
+            slot = freeSlots.poll();
+            idBySlot.set(slot, id);
+            tokensBySlot.set(slot, tokens);
+        }
+        slotById.put(id, slot);
+
+        for (String token : tokens) {
+            IntList slots = postings.get(token);
+            if (slots == null) {
+                slots = new IntList();
+                postings.put(token, slots);
+            }
+            slots.add(slot);
+        }
+    }
+
+    public synchronized void remove(String id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return;
+
+        for (String token : tokensBySlot.get(slot)) {
+            IntList slots = postings.get(token);
+            if (slots == null) continue;
+            slots.remove(slot);
+            if (slots.size == 0) postings.remove(token);
+        }
+        idBySlot.set(slot, null);
+        tokensBySlot.set(slot, null);
+        freeSlots.add(slot);
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        slotById.clear();
+        idBySlot.clear();
+        tokensBySlot.clear();
+        freeSlots.clear();
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    /**Ids of documents in which every word of the query prefixes some token*/
+    public synchronized Set<String> search(String query) {
+        List<String> words = new ArrayList<>(tokenize(query, new HashSet<>()));
+        if (words.isEmpty() || slotById.isEmpty()) return Collections.emptySet();
+
+        // matched[slot] == number of query words matched so far by that document
+        int[] matched = new int[idBySlot.size()];
+        for (int w = 0; w < words.size(); w++) {
+            String prefix = words.get(w);
+            boolean any = false;
+            for (IntList slots : postings.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                for (int i = 0; i < slots.size; i++) {
+                    int slot = slots.values[i];
+                    if (matched[slot] == w) {
+                        matched[slot] = w + 1;
+                        any = true;
+                    }
+                }
+            }
+            if (!any) return Collections.emptySet();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (int slot = 0; slot < matched.length; slot++) {
+            if (matched[slot] == words.size()) result.add(idBySlot.get(slot));
+        }
+        return result;
+    }
+
+    /**Split text into lowercase letter/digit runs*/
+    static Set<String> tokenize(String text, Set<String> out) {
+        if (text == null) return out;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i))) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                out.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) out.add(lower.substring(start));
+        return out;
+    }
+
+    /**Growable int array; posting lists are small so removal is a linear scan*/
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.androidproject.model.EventCodec;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.Map;
+
+/**
+ * One-shot migration that adds startEpochMs/endEpochMs to events written before those fields
+ * existed. Runs from an admin session; once every document carries both fields the device
+ * records it, marks {@link CatalogMigrations#EVENT_TIMES} and never runs the migration again.
+ * A failed run, or one that left a document whose date strings do not parse, is retried on the
+ * next admin login.
+ */
+public final class EventTimeBackfill {
+    private static final String TAG = "EventTimeBackfill";
+    private static final String PREFS_NAME = "migrations";
+    private static final String KEY_DONE = "eventTimeBackfillDone";
+
+    private static boolean running = false;
+
+    private EventTimeBackfill() {}
+
+    public static synchronized void runOnce(Context context) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (running || prefs.getBoolean(KEY_DONE, false)) return;
+        running = true;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.collection("events").get()
+                .addOnSuccessListener(snapshot -> {
+                    BatchWrites writes = new BatchWrites(db);
+                    int unparsed = 0;
+
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        if (doc.contains(EventCodec.FIELD_START_EPOCH_MS) && doc.contains(EventCodec.FIELD_END_EPOCH_MS)) {
+                            continue;
+                        }
+                        Map<String, Object> fields = EventCodec.timeFields(
+                                doc.getString("startDateTime"), doc.getString("endDateTime"));
+                        if (fields.size() < 2) {
+                            // Stays out of range queries until an admin fixes its dates
+                            unparsed++;
+                            Log.w(TAG, "Unparseable dates on event " + doc.getId());
+                        }
+                        if (fields.isEmpty()) continue; // nothing parseable to copy
+
+                        writes.set(doc.getReference(), fields, SetOptions.merge());
+                    }
+
+                    boolean complete = unparsed == 0;
+                    writes.commit()
+                            .addOnSuccessListener(unused -> {
+                                Log.d(TAG, "Backfilled times on " + writes.size() + " event(s), complete: " + complete);
+                                if (complete) CatalogMigrations.markDone(CatalogMigrations.EVENT_TIMES);
+                                finish(prefs, complete);
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Backfill commit failed: " + e.getMessage());
+                                finish(prefs, false);
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Backfill read failed: " + e.getMessage());
+                    finish(prefs, false);
+                });
+    }
+
+    private static synchronized void finish(SharedPreferences prefs, boolean done) {
+        running = false;
+        if (done) prefs.edit().putBoolean(KEY_DONE, true).apply();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.androidproject.model.EventCodec;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+/**
+ * One-shot migration that rewrites genderSpec as its numeric Event.GENDER_* value on events
+ * where it is missing, a string or out of range, so the explore feed's server-side whereIn on
+ * genderSpec matches them. Runs from an admin session; once every document has been written the
+ * device records it and marks {@link CatalogMigrations#GENDER_SPEC}. A failed run is retried on
+ * the next admin login.
+ */
+public final class GenderSpecBackfill {
+    private static final String TAG = "GenderSpecBackfill";
+    private static final String PREFS_NAME = "migrations";
+    private static final String KEY_DONE = "genderSpecBackfillDone";
+
+    private static boolean running = false;
+
+    private GenderSpecBackfill() {}
+
+    public static synchronized void runOnce(Context context) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (running || prefs.getBoolean(KEY_DONE, false)) return;
+        running = true;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.collection("events").get()
+                .addOnSuccessListener(snapshot -> {
+                    BatchWrites writes = new BatchWrites(db);
+
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        Object raw = doc.get("genderSpec");
+                        int normalized = EventCodec.normalizeGenderSpec(raw);
+                        if (raw instanceof Long && (Long) raw == normalized) continue;
+                        writes.update(doc.getReference(), "genderSpec", normalized);
+                    }
+
+                    writes.commit()
+                            .addOnSuccessListener(unused -> {
+                                Log.d(TAG, "Backfilled genderSpec on " + writes.size() + " event(s)");
+                                CatalogMigrations.markDone(CatalogMigrations.GENDER_SPEC);
+                                finish(prefs, true);
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Backfill commit failed: " + e.getMessage());
+                                finish(prefs, false);
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Backfill read failed: " + e.getMessage());
+                    finish(prefs, false);
+                });
+    }
+
+    private static synchronized void finish(SharedPreferences prefs, boolean done) {
+        running = false;
+        if (done) prefs.edit().putBoolean(KEY_DONE, true).apply();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-session set of eventIDs the signed-in user has joined, each with the id of its
+ * attendance document (keyed rows and legacy auto-ID rows alike).
+ * Loaded once from the attendance collection and kept current by a single snapshot listener,
+ * so checking whether a row is joined, or finding the row to delete, is an in-memory lookup.
+ */
+public class JoinedEventsIndex {
+    private static final String TAG = "JoinedEventsIndex";
+
+    private static JoinedEventsIndex instance;
+
+    private final FirebaseFirestore db;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    // Last state confirmed by the snapshot listener: eventID -> attendance doc id
+    private final Map<String, String> confirmed = new HashMap<>();
+    // Optimistic changes not yet reflected by the listener
+    private final Set<String> pendingJoins = new HashSet<>();
+    private final Set<String> pendingLeaves = new HashSet<>();
+
+    private ListenerRegistration registration;
+    private String userID;
+    private boolean starting = false;
+    private boolean loaded = false;
+
+    public static synchronized JoinedEventsIndex getInstance() {
+        if (instance == null) {
+            instance = new JoinedEventsIndex(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private JoinedEventsIndex(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**Start listening for the current user's attendance; no-op if already running*/
+    public void start(Context context) {
+        if (registration != null || starting) return;
+
+        starting = true;
+        SessionIdentity.getInstance(context).withUserID(customUserID -> {
+            starting = false;
+            if (customUserID == null) {
+                Log.e(TAG, "User has no custom userID field");
+                return;
+            }
+            listen(customUserID);
+        });
+    }
+
+    private void listen(String customUserID) {
+        if (registration != null) return;
+        userID = customUserID;
+
+        registration = db.collection("attendance")
+                .whereEqualTo("userID", customUserID)
+                .addSnapshotListener((snapshot, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Attendance listener failed: " + e.getMessage());
+                        return;
+                    }
+                    if (snapshot == null) return;
+
+                    confirmed.clear();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        String eventID = doc.getString("eventID");
+                        if (eventID != null) confirmed.put(eventID, doc.getId());
+                    }
+                    loaded = true;
+                    notifyListeners();
+                });
+    }
+
+    /**Stop listening and forget everything (called on sign-out)*/
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        userID = null;
+        starting = false;
+        loaded = false;
+        confirmed.clear();
+        pendingJoins.clear();
+        pendingLeaves.clear();
+        notifyListeners();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public String getUserID() {
+        return userID;
+    }
+
+    public boolean isJoined(String eventID) {
+        if (eventID == null) return false;
+        if (pendingLeaves.contains(eventID)) return false;
+        return pendingJoins.contains(eventID) || confirmed.containsKey(eventID);
+    }
+
+    /**Id of the user's attendance document for an event, or null if the listener has not seen one*/
+    public String attendanceDocId(String eventID) {
+        return eventID != null ? confirmed.get(eventID) : null;
+    }
+
+    /**Optimistically mark an event as joined before the write completes*/
+    public void markJoined(String eventID) {
+        pendingLeaves.remove(eventID);
+        pendingJoins.add(eventID);
+        notifyListeners();
+    }
+
+    /**Optimistically mark an event as left before the write completes*/
+    public void markLeft(String eventID) {
+        pendingJoins.remove(eventID);
+        pendingLeaves.add(eventID);
+        notifyListeners();
+    }
+
+    /**
+     * Drop the optimistic mark for an event once its write has finished.
+     * On success the listener already holds the new state; on failure this rolls the mark back.
+     */
+    public void settle(String eventID) {
+        boolean changed = pendingJoins.remove(eventID) | pendingLeaves.remove(eventID);
+        if (changed) notifyListeners();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners() {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onJoinedEventsChanged();
+        }
+    }
+
+    public interface Listener {
+        void onJoinedEventsChanged();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.androidproject.data;
+
+import android.util.Log;
+
+import com.example.androidproject.model.Event;
+import com.example.androidproject.model.EventCodec;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads every event a user has joined in two round trips: one attendance query, then all
+ * events (whereIn chunks) and all attendee counts in parallel. The callback fires once with
+ * every event that loaded, flagged partial if an event chunk failed; ordering is left to
+ * TimetableStore.
+ */
+public class JoinedEventsLoader {
+    private static final String TAG = "JoinedEventsLoader";
+    private final FirebaseFirestore db;
+    private final AttendeeCountService attendeeCounts;
+
+    public JoinedEventsLoader() {
+        this.db = FirebaseFirestore.getInstance();
+        this.attendeeCounts = AttendeeCountService.getInstance();
+    }
+
+    public void load(String userID, Callback callback) {
+        // Round trip 1 - the user's attendance rows
+        db.collection("attendance")
+                .whereEqualTo("userID", userID)
+                .get()
+                .addOnSuccessListener(attendance -> {
+                    // Legacy auto-ID rows can repeat an event
+                    LinkedHashSet<String> eventIDs = new LinkedHashSet<>();
+                    for (DocumentSnapshot doc : attendance.getDocuments()) {
+                        String eventID = doc.getString("eventID");
+                        if (eventID != null) eventIDs.add(eventID);
+                    }
+                    Log.d(TAG, "Found " + eventIDs.size() + " joined events for " + userID);
+
+                    if (eventIDs.isEmpty()) {
+                        callback.onLoaded(new ArrayList<>(), false);
+                        return;
+                    }
+                    loadEvents(new ArrayList<>(eventIDs), callback);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load attendance: " + e.getMessage());
+                    callback.onError(e);
+                });
+    }
+
+    /**Round trip 2 - event chunks and counts, all in flight at once*/
+    private void loadEvents(List<String> eventIDs, Callback callback) {
+        List<Task<QuerySnapshot>> chunks = new ArrayList<>();
+        for (List<String> chunk : QueryChunks.forWhereIn(eventIDs)) {
+            chunks.add(db.collection("events").whereIn("eventID", chunk).get());
+        }
+
+        PendingLoad pending = new PendingLoad(callback);
+        attendeeCounts.getCounts(eventIDs, counts -> {
+            pending.counts = counts;
+            pending.publishIfReady();
+        });
+
+        Tasks.whenAllComplete(chunks).addOnCompleteListener(done -> {
+            List<Event> events = new ArrayList<>();
+            Exception failure = null;
+            for (Task<QuerySnapshot> chunk : chunks) {
+                if (!chunk.isSuccessful() || chunk.getResult() == null) {
+                    failure = chunk.getException();
+                    Log.e(TAG, "Failed to load an event chunk", failure);
+                    continue;
+                }
+                for (DocumentSnapshot doc : chunk.getResult().getDocuments()) {
+                    Event event = EventCodec.decode(doc);
+                    if (event != null) events.add(event);
+                }
+            }
+
+            // Show whatever loaded, flagged as partial; only fail outright if nothing did
+            if (events.isEmpty() && failure != null) {
+                callback.onError(failure);
+                return;
+            }
+            pending.events = events;
+            pending.partial = failure != null;
+            pending.publishIfReady();
+        });
+    }
+
+    /**Joins the event and count halves; both complete on the main thread*/
+    private static class PendingLoad {
+        final Callback callback;
+        List<Event> events;
+        boolean partial;
+        Map<String, Integer> counts;
+
+        PendingLoad(Callback callback) {
+            this.callback = callback;
+        }
+
+        void publishIfReady() {
+            if (events == null || counts == null) return;
+
+            for (Event event : events) {
+                Integer count = counts.get(event.getEventID());
+                if (count != null) event.setCurrentAttendees(count);
+            }
+            callback.onLoaded(events, partial);
+        }
+    }
+
+    public interface Callback {
+        /**
+         * @param partial true if some joined events could not be loaded; the list then says
+         *                nothing about whether those events are still joined
+         */
+        void onLoaded(List<Event> events, boolean partial);
+
+        void onError(Exception e);
+    }
+}
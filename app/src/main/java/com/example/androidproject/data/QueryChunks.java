@@ -0,0 +1,23 @@
+package com.example.androidproject.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits value lists for whereIn queries, which accept a limited number of values each.
+ */
+final class QueryChunks {
+    // Largest value list a single whereIn accepts on every SDK version we support
+    static final int WHERE_IN_LIMIT = 10;
+
+    private QueryChunks() {}
+
+    /**Consecutive chunks of at most WHERE_IN_LIMIT values, in order; each chunk is a copy*/
+    static <T> List<List<T>> forWhereIn(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += WHERE_IN_LIMIT) {
+            chunks.add(new ArrayList<>(values.subList(i, Math.min(i + WHERE_IN_LIMIT, values.size()))));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.androidproject.reminders.ReminderScheduler;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+/**
+ * Maps the Firebase UID to the app's custom IDs ("U…" for users, adminID for admins).
+ * Resolved once at login and persisted, so screens get the custom ID without
+ * reading the user/admin document before every operation. A plain sign-out keeps the identity
+ * and what the device saved for the account (timetable copy, reminders) so the same account
+ * finds them again; they are dropped on an explicit logout or when another account logs in.
+ */
+public class SessionIdentity {
+    private static final String TAG = "SessionIdentity";
+    private static final String PREFS_NAME = "session_identity";
+    private static final String KEY_FIREBASE_UID = "firebaseUid";
+    private static final String KEY_USER_ID = "userID";
+    private static final String KEY_ADMIN_ID = "adminID";
+    private static final String KEY_GENDER = "gender";
+
+    private static SessionIdentity instance;
+
+    private final Context appContext;
+    private final SharedPreferences prefs;
+
+    public static synchronized SessionIdentity getInstance(Context context) {
+        if (instance == null) {
+            instance = new SessionIdentity(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SessionIdentity(Context appContext) {
+        this.appContext = appContext;
+        this.prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**Remember the custom userID of a participant that just logged in*/
+    public void saveUser(String firebaseUid, String userID) {
+        forgetDeviceIfAccountChanged(firebaseUid);
+        prefs.edit()
+                .clear()
+                .putString(KEY_FIREBASE_UID, firebaseUid)
+                .putString(KEY_USER_ID, userID)
+                .apply();
+    }
+
+    /**Remember the participant's gender (0 = female, 1 = male) for catalog filtering*/
+    public void saveGender(Long gender) {
+        if (gender == null) prefs.edit().remove(KEY_GENDER).apply();
+        else prefs.edit().putInt(KEY_GENDER, gender.intValue()).apply();
+    }
+
+    /**Remember the adminID of an organizer that just logged in*/
+    public void saveAdmin(String firebaseUid, String adminID) {
+        forgetDeviceIfAccountChanged(firebaseUid);
+        prefs.edit()
+                .clear()
+                .putString(KEY_FIREBASE_UID, firebaseUid)
+                .putString(KEY_ADMIN_ID, adminID)
+                .apply();
+    }
+
+    /**Custom userID of the signed-in participant, or null if not resolved for this account*/
+    public String getUserID() {
+        return isCurrentAccount() ? prefs.getString(KEY_USER_ID, null) : null;
+    }
+
+    /**Gender of the signed-in participant, or -1 if unknown*/
+    public int getGender() {
+        return isCurrentAccount() ? prefs.getInt(KEY_GENDER, -1) : -1;
+    }
+
+    /**adminID of the signed-in organizer, or null if not resolved for this account*/
+    public String getAdminID() {
+        return isCurrentAccount() ? prefs.getString(KEY_ADMIN_ID, null) : null;
+    }
+
+    /**Deliver the userID, synchronously when known; otherwise read the user document once*/
+    public void withUserID(IdCallback callback) {
+        String cached = getUserID();
+        if (cached != null) {
+            callback.onResolved(cached);
+            return;
+        }
+        resolve("user", KEY_USER_ID, callback);
+    }
+
+    /**Deliver the adminID, synchronously when known; otherwise read the admin document once*/
+    public void withAdminID(IdCallback callback) {
+        String cached = getAdminID();
+        if (cached != null) {
+            callback.onResolved(cached);
+            return;
+        }
+        resolve("admin", KEY_ADMIN_ID, callback);
+    }
+
+    private void resolve(String collection, String field, IdCallback callback) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            callback.onResolved(null);
+            return;
+        }
+
+        String uid = user.getUid();
+        FirebaseFirestore.getInstance().collection(collection).document(uid).get()
+                .addOnSuccessListener(doc -> {
+                    String id = doc.exists() ? doc.getString(field) : null;
+                    if (id != null) {
+                        if (KEY_USER_ID.equals(field)) saveUser(uid, id);
+                        else saveAdmin(uid, id);
+                    }
+                    callback.onResolved(id);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to resolve " + field + ": " + e.getMessage());
+                    callback.onResolved(null);
+                });
+    }
+
+    /**Drop the in-memory session state; what the device saved for the account stays*/
+    private void endSession() {
+        JoinedEventsIndex.getInstance().stop();
+        AttendeeCountService.getInstance().clear();
+        UserProfileCache.getInstance().clear();
+        // Disable disk writes before the store empties, so the emptied store is not persisted
+        TimetableDiskCache.getInstance(appContext).detach();
+        TimetableStore.getInstance().clear();
+    }
+
+    /**Forget the stored identity and everything the device saved for it*/
+    private void forgetDevice() {
+        prefs.edit().clear().apply();
+        TimetableDiskCache.getInstance(appContext).deleteAll();
+        ReminderScheduler.getInstance(appContext).cancelAll();
+    }
+
+    private void forgetDeviceIfAccountChanged(String firebaseUid) {
+        String previous = prefs.getString(KEY_FIREBASE_UID, null);
+        if (previous != null && !previous.equals(firebaseUid)) forgetDevice();
+    }
+
+    /**
+     * Sign out of Firebase, e.g. when the login screen opens. The identity and the account's
+     * saved timetable stay on the device for the next login.
+     */
+    public void signOut() {
+        FirebaseAuth.getInstance().signOut();
+        endSession();
+    }
+
+    /**Log out at the user's request: sign out and forget everything saved for the account*/
+    public void logOut() {
+        FirebaseAuth.getInstance().signOut();
+        endSession();
+        forgetDevice();
+    }
+
+    private boolean isCurrentAccount() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null && user.getUid().equals(prefs.getString(KEY_FIREBASE_UID, null));
+    }
+
+    public interface IdCallback {
+        /**Called with the resolved ID, or null if it could not be resolved*/
+        void onResolved(String id);
+    }
+}
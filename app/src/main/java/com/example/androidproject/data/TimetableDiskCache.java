@@ -0,0 +1,228 @@
+package com.example.androidproject.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.example.androidproject.model.Event;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a copy of the session timetable in a small binary file so the timetable can be drawn
+ * on a cold start before any network round trip. Every change to {@link TimetableStore} is
+ * written back on a background thread (bursts of changes coalesce into one write); the file is
+ * replaced atomically. Each account has its own file, named after and tagged with its userID,
+ * which outlives a sign-out and is deleted only on an explicit logout or when another account
+ * logs in on the device.
+ */
+public class TimetableDiskCache implements TimetableStore.Listener {
+    private static final String TAG = "TimetableDiskCache";
+    private static final String FILE_PREFIX = "timetable_";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int MAGIC = 0x54544231; // "TTB1"
+    private static final int VERSION = 1;
+    // Longer than any field an event can hold; a bigger length means the file is corrupt
+    private static final int MAX_STRING_BYTES = 1 << 20;
+
+    private static TimetableDiskCache instance;
+
+    private final File dir;
+    private final TimetableStore store;
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    // Owner of the persisted timetable; null while signed out, which disables writes
+    private volatile String userID;
+    private boolean restoring = false; // main thread only
+
+    public static synchronized TimetableDiskCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new TimetableDiskCache(context.getApplicationContext(), TimetableStore.getInstance());
+        }
+        return instance;
+    }
+
+    private TimetableDiskCache(Context appContext, TimetableStore store) {
+        this.dir = appContext.getFilesDir();
+        this.store = store;
+        store.addListener(this);
+    }
+
+    /**
+     * Fill an empty store from disk for this user, then run onRestored on the main thread.
+     * A store that already holds a network load is left alone.
+     */
+    public void restore(String userID, Runnable onRestored) {
+        this.userID = userID;
+        if (store.isLoaded()) {
+            if (onRestored != null) onRestored.run();
+            return;
+        }
+
+        io.execute(() -> {
+            List<Event> events = read(userID);
+            mainHandler.post(() -> {
+                if (events != null) {
+                    // What was just read needs no writing back
+                    restoring = true;
+                    store.restore(events);
+                    restoring = false;
+                }
+                if (onRestored != null) onRestored.run();
+            });
+        });
+    }
+
+    /**Stop writing the store to disk (sign-out) while keeping the account's saved copy*/
+    public void detach() {
+        userID = null;
+    }
+
+    /**
+     * Stop writing and delete every account's saved copy (explicit logout, or another account
+     * logging in); queued behind any pending write.
+     */
+    public void deleteAll() {
+        userID = null;
+        io.execute(() -> {
+            File[] files = dir.listFiles((d, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+            if (files == null) return;
+            for (File saved : files) {
+                new AtomicFile(saved).delete();
+            }
+        });
+    }
+
+    @Override
+    public void onTimetableChanged() {
+        if (restoring || userID == null || !store.isLoaded()) return;
+        if (!writeScheduled.compareAndSet(false, true)) return;
+
+        io.execute(() -> {
+            writeScheduled.set(false);
+            String owner = userID;
+            if (owner == null) return;
+            write(owner, store.all());
+        });
+    }
+
+    private AtomicFile fileFor(String userID) {
+        return new AtomicFile(new File(dir, FILE_PREFIX + userID + FILE_SUFFIX));
+    }
+
+    private List<Event> read(String userID) {
+        AtomicFile file = fileFor(userID);
+        if (!file.getBaseFile().exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            return decode(in, userID);
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable timetable cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String userID, List<Event> events) {
+        AtomicFile file = fileFor(userID);
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            encode(data, userID, events);
+            data.flush();
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to persist timetable: " + e.getMessage());
+            if (out != null) file.failWrite(out);
+        }
+    }
+
+    /**Serialize a timetable: header (magic, version, owner), then one fixed-order record per event*/
+    static void encode(DataOutput out, String userID, List<Event> events) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, userID);
+        out.writeInt(events.size());
+        for (Event event : events) {
+            writeString(out, event.getId());
+            writeString(out, event.getEventID());
+            writeString(out, event.getAdminID());
+            writeString(out, event.getEventName());
+            writeString(out, event.getVenue());
+            writeString(out, event.getDescription());
+            writeString(out, event.getStartDateTime());
+            writeString(out, event.getEndDateTime());
+            writeString(out, event.getImageName());
+            out.writeInt(event.getGenderSpec());
+            out.writeInt(event.getCurrentAttendees());
+            out.writeInt(event.getPax());
+            out.writeLong(event.getStartEpochMs());
+            out.writeLong(event.getEndEpochMs());
+        }
+    }
+
+    /**The stored events, or null if the data is from another format version or another user*/
+    static List<Event> decode(DataInput in, String userID) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+        if (!userID.equals(readString(in))) return null;
+
+        int count = in.readInt();
+        if (count < 0) throw new IOException("Negative event count");
+        List<Event> events = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            Event event = new Event();
+            event.setId(readString(in));
+            event.setEventID(readString(in));
+            event.setAdminID(readString(in));
+            event.setEventName(readString(in));
+            event.setVenue(readString(in));
+            event.setDescription(readString(in));
+            event.setStartDateTime(readString(in));
+            event.setEndDateTime(readString(in));
+            event.setImageName(readString(in));
+            event.setGenderSpec(in.readInt());
+            event.setCurrentAttendees(in.readInt());
+            event.setPax(in.readInt());
+            event.setStartEpochMs(in.readLong());
+            event.setEndEpochMs(in.readLong());
+            events.add(event);
+        }
+        return events;
+    }
+
+    // Length-prefixed UTF-8 (-1 = null); writeUTF would cap descriptions at 64 KB
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        if (length > MAX_STRING_BYTES) throw new IOException("String length " + length + " out of range");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.androidproject.data;
+
+import com.example.androidproject.model.DateCodec;
+import com.example.androidproject.model.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session-wide, chronologically sorted index of the events the user has joined.
+ * Filled from the on-disk copy on a cold start, then reconciled against each network load.
+ * Events are ordered by (start, end, doc id) so the order is stable; new events go in by binary
+ * insertion and date-range lookups are two binary searches plus the matching slice,
+ * O(log n + k). Events without a parseable start sort last and never match a range.
+ * Events are also bucketed by local epoch day (every day they span) for the calendar views;
+ * buckets are built with the store and kept current on every insert and removal.
+ * Mutations happen on the main thread and notify listeners there; the conflict detector is
+ * rebuilt lazily on the first check after a change.
+ */
+public class TimetableStore {
+
+    private static final Comparator<Event> CHRONOLOGICAL = (a, b) -> {
+        int byStart = Long.compare(startKey(a), startKey(b));
+        if (byStart != 0) return byStart;
+        int byEnd = Long.compare(endKey(a), endKey(b));
+        if (byEnd != 0) return byEnd;
+        return compareIds(a.getId(), b.getId());
+    };
+
+    // Cap on days a single event is bucketed under, against bad end dates
+    private static final int MAX_SPAN_DAYS = 62;
+
+    private static TimetableStore instance;
+
+    private final List<Event> sorted = new ArrayList<>();
+    private final Map<String, Event> byId = new HashMap<>();
+    // epoch day -> events on that day, in chronological order
+    private final Map<Long, List<Event>> byDay = new HashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private boolean loaded = false;
+    private boolean synced = false; // a network load has been reconciled this session
+    private ConflictDetector conflicts; // null until needed after a change
+
+    public static synchronized TimetableStore getInstance() {
+        if (instance == null) {
+            instance = new TimetableStore();
+        }
+        return instance;
+    }
+
+    private TimetableStore() {}
+
+    /**True once there is a timetable to show, from disk or the network*/
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**True once a network load has been reconciled this session*/
+    public synchronized boolean isSynced() {
+        return synced;
+    }
+
+    /**Seed an empty store from the on-disk copy; ignored once a network load has landed*/
+    public synchronized boolean restore(Collection<Event> events) {
+        if (loaded) return false;
+        fill(events);
+        changed();
+        return true;
+    }
+
+    /**
+     * Bring the store in line with a network load, touching only events that were added,
+     * removed or changed. A partial load only adds and updates: an event missing from it may
+     * just have failed to load, so nothing is removed and the store does not count as synced.
+     * Listeners hear about it once, and only if something differed.
+     * Returns the number of events that changed.
+     */
+    public synchronized int reconcile(Collection<Event> fresh, boolean partial) {
+        if (!partial) synced = true;
+        if (!loaded || sorted.isEmpty()) {
+            fill(fresh);
+            changed();
+            return sorted.size();
+        }
+
+        int changes = 0;
+        Set<String> seen = new HashSet<>();
+        for (Event event : fresh) {
+            String id = event.getId();
+            if (id == null || !seen.add(id)) continue;
+
+            Event existing = byId.get(id);
+            if (existing != null && existing.sameDetailsAs(event)
+                    && existing.getCurrentAttendees() == event.getCurrentAttendees()) {
+                continue;
+            }
+            if (existing != null) detach(id);
+            insert(event);
+            changes++;
+        }
+
+        if (!partial) {
+            for (Event event : new ArrayList<>(sorted)) {
+                if (!seen.contains(event.getId())) {
+                    detach(event.getId());
+                    changes++;
+                }
+            }
+        }
+
+        if (changes > 0) changed();
+        return changes;
+    }
+
+    private void fill(Collection<Event> events) {
+        sorted.clear();
+        byId.clear();
+        byDay.clear();
+        for (Event event : events) {
+            if (event.getId() == null || byId.containsKey(event.getId())) continue;
+            byId.put(event.getId(), event);
+            sorted.add(event);
+        }
+        Collections.sort(sorted, CHRONOLOGICAL);
+        // Appending in sorted order keeps every bucket sorted without searching
+        for (Event event : sorted) {
+            for (long day = firstDay(event), last = lastDay(event); day <= last; day++) {
+                bucket(day, true).add(event);
+            }
+        }
+        loaded = true;
+    }
+
+    /**Insert or replace one event at its chronological position*/
+    public synchronized void upsert(Event event) {
+        if (event.getId() == null) return;
+        detach(event.getId());
+        insert(event);
+        changed();
+    }
+
+    public synchronized Event remove(String id) {
+        Event existing = detach(id);
+        if (existing != null) changed();
+        return existing;
+    }
+
+    private void insert(Event event) {
+        insertSorted(sorted, event);
+        byId.put(event.getId(), event);
+        for (long day = firstDay(event), last = lastDay(event); day <= last; day++) {
+            insertSorted(bucket(day, true), event);
+        }
+    }
+
+    private Event detach(String id) {
+        Event existing = byId.remove(id);
+        if (existing == null) return null;
+
+        removeSorted(sorted, existing);
+        for (long day = firstDay(existing), last = lastDay(existing); day <= last; day++) {
+            List<Event> bucket = bucket(day, false);
+            if (bucket == null) continue;
+            removeSorted(bucket, existing);
+            if (bucket.isEmpty()) byDay.remove(day);
+        }
+        return existing;
+    }
+
+    private List<Event> bucket(long day, boolean create) {
+        List<Event> bucket = byDay.get(day);
+        if (bucket == null && create) {
+            bucket = new ArrayList<>(2);
+            byDay.put(day, bucket);
+        }
+        return bucket;
+    }
+
+    private static void insertSorted(List<Event> list, Event event) {
+        int index = Collections.binarySearch(list, event, CHRONOLOGICAL);
+        list.add(index < 0 ? -index - 1 : index, event);
+    }
+
+    private static void removeSorted(List<Event> list, Event event) {
+        int index = Collections.binarySearch(list, event, CHRONOLOGICAL);
+        if (index >= 0) list.remove(index);
+    }
+
+    /**First local day an event occupies; no days at all when it has no start*/
+    private static long firstDay(Event event) {
+        return event.getStartEpochMs() == Event.NO_TIME ? 0 : DateCodec.epochDay(event.getStartEpochMs());
+    }
+
+    /**Last local day an event occupies; an end exactly at midnight does not reach the next day*/
+    private static long lastDay(Event event) {
+        if (event.getStartEpochMs() == Event.NO_TIME) return -1;
+        long first = firstDay(event);
+        long end = event.getEndEpochMs();
+        if (end == Event.NO_TIME || end <= event.getStartEpochMs()) return first;
+        return Math.min(DateCodec.epochDay(end - 1), first + MAX_SPAN_DAYS - 1);
+    }
+
+    public synchronized int size() {
+        return sorted.size();
+    }
+
+    public synchronized void clear() {
+        sorted.clear();
+        byId.clear();
+        byDay.clear();
+        loaded = false;
+        synced = false;
+        changed();
+    }
+
+    /**Every joined event in chronological order (a copy)*/
+    public synchronized List<Event> all() {
+        return new ArrayList<>(sorted);
+    }
+
+    /**Overlap checks against the current timetable; built once per change and shared*/
+    public synchronized ConflictDetector conflicts() {
+        if (conflicts == null) conflicts = ConflictDetector.build(sorted);
+        return conflicts;
+    }
+
+    /**Events on a local epoch day (see DateCodec.epochDay), in chronological order*/
+    public synchronized List<Event> onDay(long epochDay) {
+        List<Event> bucket = byDay.get(epochDay);
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+    /**Number of events on each of `days` consecutive days from firstDay, for calendar cells*/
+    public synchronized int[] countsFrom(long firstDay, int days) {
+        int[] counts = new int[days];
+        for (int i = 0; i < days; i++) {
+            List<Event> bucket = byDay.get(firstDay + i);
+            counts[i] = bucket != null ? bucket.size() : 0;
+        }
+        return counts;
+    }
+
+    /**Events whose start lies in [fromMs, toMs], in chronological order*/
+    public synchronized List<Event> startingBetween(long fromMs, long toMs) {
+        if (fromMs > toMs) return new ArrayList<>();
+        int from = firstStartingAtOrAfter(fromMs);
+        int to = firstStartingAtOrAfter(toMs == Long.MAX_VALUE ? toMs : toMs + 1);
+        return new ArrayList<>(sorted.subList(from, Math.max(from, to)));
+    }
+
+    /**Lower bound: index of the first event with start >= epochMs*/
+    private int firstStartingAtOrAfter(long epochMs) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startKey(sorted.get(mid)) < epochMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public synchronized void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void changed() {
+        conflicts = null;
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onTimetableChanged();
+        }
+    }
+
+    private static long startKey(Event event) {
+        return event.getStartEpochMs() == Event.NO_TIME ? Long.MAX_VALUE : event.getStartEpochMs();
+    }
+
+    private static long endKey(Event event) {
+        return event.getEndEpochMs() == Event.NO_TIME ? Long.MAX_VALUE : event.getEndEpochMs();
+    }
+
+    private static int compareIds(String a, String b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        return a.compareTo(b);
+    }
+
+    public interface Listener {
+        void onTimetableChanged();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.androidproject.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.androidproject.model.UserProfile;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session-wide LRU cache of user profiles keyed by the custom userID.
+ * Misses are resolved as parallel whereIn queries of up to ten users each, so a list of N
+ * attendees costs about N/10 queries the first time and nothing once cached. Entries expire
+ * after CACHE_TTL_MS, so edits made on other devices show up; this device's own edits are
+ * put() as soon as they are saved.
+ */
+public class UserProfileCache {
+    private static final String TAG = "UserProfileCache";
+    private static final int MAX_ENTRIES = 1000;
+    private static final long CACHE_TTL_MS = 5 * 60_000;
+
+    private static UserProfileCache instance;
+
+    private final FirebaseFirestore db;
+    // Access order, so the least recently shown profile is evicted first
+    private final LinkedHashMap<String, CachedProfile> cache =
+            new LinkedHashMap<String, CachedProfile>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private final Map<String, Task<QuerySnapshot>> inFlight = new HashMap<>();
+
+    public static synchronized UserProfileCache getInstance() {
+        if (instance == null) {
+            instance = new UserProfileCache(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    private UserProfileCache(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**Record a profile that was read or saved elsewhere*/
+    public synchronized void put(UserProfile profile) {
+        if (profile != null) cache.put(profile.getUserID(), new CachedProfile(profile));
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Resolve profiles for many users at once. Cached profiles are served immediately, the
+     * rest are fetched in parallel whereIn chunks and the callback fires once with every
+     * profile that could be resolved. Users without a profile are simply absent.
+     */
+    public void getProfiles(Collection<String> userIDs, ProfilesCallback callback) {
+        Map<String, UserProfile> result = new HashMap<>();
+        Set<Task<QuerySnapshot>> pending = new HashSet<>();
+
+        synchronized (this) {
+            List<String> missing = new ArrayList<>();
+            for (String userID : new LinkedHashSet<>(userIDs)) {
+                if (userID == null) continue;
+
+                CachedProfile cached = cache.get(userID);
+                if (cached != null && !cached.isExpired()) {
+                    result.put(userID, cached.profile);
+                    continue;
+                }
+
+                // Share one request between callers asking for the same user
+                Task<QuerySnapshot> task = inFlight.get(userID);
+                if (task != null) pending.add(task);
+                else missing.add(userID);
+            }
+
+            for (List<String> chunk : QueryChunks.forWhereIn(missing)) {
+                Task<QuerySnapshot> task = db.collection("user").whereIn("userID", chunk).get();
+                for (String userID : chunk) inFlight.put(userID, task);
+                pending.add(task);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            callback.onProfiles(result);
+            return;
+        }
+
+        Set<String> wanted = new HashSet<>(userIDs);
+        Tasks.whenAllComplete(pending).addOnCompleteListener(done -> {
+            synchronized (this) {
+                for (Task<QuerySnapshot> task : pending) {
+                    inFlight.values().removeIf(t -> t == task);
+
+                    if (!task.isSuccessful() || task.getResult() == null) {
+                        Log.e(TAG, "Failed to load a profile chunk", task.getException());
+                        continue;
+                    }
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        UserProfile profile = UserProfile.decode(doc);
+                        if (profile == null) continue;
+                        cache.put(profile.getUserID(), new CachedProfile(profile));
+                        if (wanted.contains(profile.getUserID())) result.put(profile.getUserID(), profile);
+                    }
+                }
+            }
+            callback.onProfiles(result);
+        });
+    }
+
+    private static class CachedProfile {
+        final UserProfile profile;
+        final long fetchedAt;
+
+        CachedProfile(UserProfile profile) {
+            this.profile = profile;
+            this.fetchedAt = SystemClock.elapsedRealtime();
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - fetchedAt > CACHE_TTL_MS;
+        }
+    }
+
+    public interface ProfilesCallback {
+        void onProfiles(Map<String, UserProfile> profiles);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.androidproject.model;
+
+/**
+ * One row of an event's attendee list: the attendance document and the profile of the user it
+ * belongs to.
+ */
+public final class Attendee {
+    private final String attendanceDocId;
+    private final UserProfile profile;
+
+    public Attendee(String attendanceDocId, UserProfile profile) {
+        this.attendanceDocId = attendanceDocId;
+        this.profile = profile;
+    }
+
+    public String getAttendanceDocId() { return attendanceDocId; }
+
+    public UserProfile getProfile() { return profile; }
+
+    public String getUserID() { return profile.getUserID(); }
+}
@@ -0,0 +1,199 @@
+package com.example.androidproject.model;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe date/time helpers shared by every screen and safe to call from background threads.
+ * Formatters and calendars are per thread; parsed event date-time strings are memoized, since the
+ * same few hundred strings are parsed again on every load and filter.
+ */
+public final class DateCodec {
+    /**Format of the startDateTime/endDateTime strings written by the admin screens*/
+    public static final String EVENT_DATE_TIME_PATTERN = "dd MMM yyyy, hh:mm a";
+    /**
+     * Locale of the stored strings, fixed so every device writes and reads the same month and
+     * AM/PM names whatever its language
+     */
+    public static final Locale EVENT_DATE_TIME_LOCALE = Locale.US;
+    private static final String DISPLAY_DATE_PATTERN = "EEE, MMM d, yyyy";
+    private static final String SHORT_DATE_PATTERN = "MMM d";
+    private static final String MONTH_PATTERN = "MMMM yyyy";
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Bound on the memo; cleared wholesale when full rather than tracking recency
+    private static final int MAX_MEMO_ENTRIES = 16_384;
+
+    private static final ThreadLocal<SimpleDateFormat> EVENT_DATE_TIME = new ThreadLocal<>();
+    // Device-language format older builds wrote with; only tried when the fixed one fails
+    private static final ThreadLocal<SimpleDateFormat> EVENT_DATE_TIME_DEVICE = new ThreadLocal<>();
+    private static final ThreadLocal<SimpleDateFormat> DISPLAY_DATE = new ThreadLocal<>();
+    private static final ThreadLocal<SimpleDateFormat> SHORT_DATE = new ThreadLocal<>();
+    private static final ThreadLocal<SimpleDateFormat> MONTH = new ThreadLocal<>();
+    private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<>();
+
+    private static final ConcurrentHashMap<String, Long> parsed = new ConcurrentHashMap<>();
+
+    private DateCodec() {}
+
+    /**Parse an event date-time string into epoch millis, or Event.NO_TIME*/
+    public static long parseEventDateTime(String text) {
+        if (text == null) return Event.NO_TIME;
+        String key = text.trim();
+        if (key.isEmpty()) return Event.NO_TIME;
+
+        Long cached = parsed.get(key);
+        if (cached != null) return cached;
+
+        long value = parse(eventDateTimeFormat(), key);
+        if (value == Event.NO_TIME) value = parse(deviceEventDateTimeFormat(), key);
+
+        if (parsed.size() >= MAX_MEMO_ENTRIES) parsed.clear();
+        parsed.put(key, value);
+        return value;
+    }
+
+    /**Format epoch millis the way event documents store them*/
+    public static String formatEventDateTime(long epochMs) {
+        return eventDateTimeFormat().format(new Date(epochMs));
+    }
+
+    /**e.g. "Mon, Mar 3, 2025", for date picker labels*/
+    public static String formatDisplayDate(long epochMs) {
+        return format(DISPLAY_DATE, DISPLAY_DATE_PATTERN, epochMs);
+    }
+
+    /**e.g. "Mar 3", for week ranges*/
+    public static String formatShortDate(long epochMs) {
+        return format(SHORT_DATE, SHORT_DATE_PATTERN, epochMs);
+    }
+
+    /**e.g. "March 2025", for month headers*/
+    public static String formatMonth(long epochMs) {
+        return format(MONTH, MONTH_PATTERN, epochMs);
+    }
+
+    /**
+     * Local calendar day of an instant as a day count since 1970-01-01, the key of the
+     * timetable's day buckets. Only a zone-offset lookup, no Calendar arithmetic.
+     */
+    public static long epochDay(long epochMs) {
+        long local = epochMs + calendar().getTimeZone().getOffset(epochMs);
+        return Math.floorDiv(local, DAY_MS);
+    }
+
+    /**Local midnight at the start of an epoch day*/
+    public static long dayStartMs(long epochDay) {
+        Calendar calendar = calendar();
+        calendar.clear();
+        calendar.set(1970, Calendar.JANUARY, 1);
+        calendar.add(Calendar.DAY_OF_MONTH, (int) epochDay);
+        return calendar.getTimeInMillis();
+    }
+
+    /**Calendar.SUNDAY..Calendar.SATURDAY for an epoch day (1970-01-01 was a Thursday)*/
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7L) + 1;
+    }
+
+    /**Midnight at the start of the local day containing epochMs*/
+    public static long startOfDay(long epochMs) {
+        Calendar calendar = calendar();
+        calendar.setTimeInMillis(epochMs);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    /**Last millisecond of the local day containing epochMs*/
+    public static long endOfDay(long epochMs) {
+        Calendar calendar = calendar();
+        calendar.setTimeInMillis(startOfDay(epochMs));
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis() - 1;
+    }
+
+    /**Inclusive range from the start of fromDay to the end of toDay, computed once per filter*/
+    public static DayRange dayRange(long fromDayMs, long toDayMs) {
+        return new DayRange(startOfDay(fromDayMs), endOfDay(toDayMs));
+    }
+
+    private static long parse(SimpleDateFormat format, String text) {
+        try {
+            Date date = format.parse(text);
+            return date != null ? date.getTime() : Event.NO_TIME;
+        } catch (ParseException e) {
+            return Event.NO_TIME;
+        }
+    }
+
+    private static SimpleDateFormat eventDateTimeFormat() {
+        SimpleDateFormat format = EVENT_DATE_TIME.get();
+        if (format == null) {
+            format = new SimpleDateFormat(EVENT_DATE_TIME_PATTERN, EVENT_DATE_TIME_LOCALE);
+            EVENT_DATE_TIME.set(format);
+        }
+        return format;
+    }
+
+    private static SimpleDateFormat deviceEventDateTimeFormat() {
+        SimpleDateFormat format = EVENT_DATE_TIME_DEVICE.get();
+        if (format == null) {
+            format = new SimpleDateFormat(EVENT_DATE_TIME_PATTERN, Locale.getDefault());
+            EVENT_DATE_TIME_DEVICE.set(format);
+        }
+        return format;
+    }
+
+    private static String format(ThreadLocal<SimpleDateFormat> holder, String pattern, long epochMs) {
+        SimpleDateFormat format = holder.get();
+        if (format == null) {
+            format = new SimpleDateFormat(pattern, Locale.getDefault());
+            holder.set(format);
+        }
+        return format.format(new Date(epochMs));
+    }
+
+    private static Calendar calendar() {
+        Calendar calendar = CALENDAR.get();
+        if (calendar == null) {
+            calendar = Calendar.getInstance();
+            CALENDAR.set(calendar);
+        }
+        return calendar;
+    }
+
+    /**
+     * Forget memoized parses and this thread's formatters. Call after the default locale or time
+     * zone changes; they are otherwise captured on first use.
+     */
+    public static void clearCache() {
+        parsed.clear();
+        EVENT_DATE_TIME.remove();
+        EVENT_DATE_TIME_DEVICE.remove();
+        DISPLAY_DATE.remove();
+        SHORT_DATE.remove();
+        MONTH.remove();
+        CALENDAR.remove();
+    }
+
+    /**Immutable inclusive [startMs, endMs] range*/
+    public static final class DayRange {
+        public final long startMs;
+        public final long endMs;
+
+        DayRange(long startMs, long endMs) {
+            this.startMs = startMs;
+            this.endMs = endMs;
+        }
+
+        public boolean contains(long epochMs) {
+            return epochMs != Event.NO_TIME && epochMs >= startMs && epochMs <= endMs;
+        }
+    }
+}
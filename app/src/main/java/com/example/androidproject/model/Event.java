@@ -0,0 +1,123 @@
+package com.example.androidproject.model;
+
+import android.text.TextUtils;
+
+/**
+ * Event as shown on every screen. Built by {@link EventCodec} from an events document;
+ * start/end are kept both as the stored display strings and as epoch millis.
+ */
+public class Event {
+    /**genderSpec values; the same encoding as the user's gender field*/
+    public static final int GENDER_FEMALE = 0;
+    public static final int GENDER_MALE = 1;
+    public static final int GENDER_ANY = 2;
+
+    /**Epoch value for a start/end that is missing or could not be parsed*/
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private String id;
+    private String eventID;
+    private String adminID;
+    private String description;
+    private String endDateTime;
+    private String eventName;
+    private int genderSpec = GENDER_ANY;
+    private String startDateTime;
+    private String venue;
+    private int currentAttendees;
+    private int pax;
+    private String imageName;
+    private long startEpochMs = NO_TIME;
+    private long endEpochMs = NO_TIME;
+
+    public Event() {}
+
+    // Getter and setter methods for all properties
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getEventID() { return eventID; }
+    public void setEventID(String eventID) { this.eventID = eventID; }
+
+    public String getAdminID() { return adminID; }
+    public void setAdminID(String adminID) { this.adminID = adminID; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getEndDateTime() { return endDateTime; }
+    public void setEndDateTime(String endDateTime) { this.endDateTime = endDateTime; }
+
+    public String getEventName() { return eventName; }
+    public void setEventName(String eventName) { this.eventName = eventName; }
+
+    public int getGenderSpec() { return genderSpec; }
+    public void setGenderSpec(int genderSpec) { this.genderSpec = genderSpec; }
+
+    public String getStartDateTime() { return startDateTime; }
+    public void setStartDateTime(String startDateTime) { this.startDateTime = startDateTime; }
+
+    public String getVenue() { return venue; }
+    public void setVenue(String venue) { this.venue = venue; }
+
+    public int getCurrentAttendees() { return currentAttendees; }
+    public void setCurrentAttendees(int currentAttendees) { this.currentAttendees = currentAttendees; }
+
+    public int getPax() { return pax; }
+    public void setPax(int pax) { this.pax = pax; }
+
+    public String getImageName() { return imageName; }
+    public void setImageName(String imageName) { this.imageName = imageName; }
+
+    public long getStartEpochMs() { return startEpochMs; }
+    public void setStartEpochMs(long startEpochMs) { this.startEpochMs = startEpochMs; }
+
+    public long getEndEpochMs() { return endEpochMs; }
+    public void setEndEpochMs(long endEpochMs) { this.endEpochMs = endEpochMs; }
+
+    public boolean hasTimes() {
+        return startEpochMs != NO_TIME && endEpochMs != NO_TIME;
+    }
+
+    /**True if a user of the given gender (-1 = unknown) may join*/
+    public boolean isOpenTo(int userGender) {
+        return genderSpec == GENDER_ANY || userGender == -1 || genderSpec == userGender;
+    }
+
+    /**Shallow copy; list items are replaced rather than mutated so diffs see changes*/
+    public Event copy() {
+        Event copy = new Event();
+        copy.id = id;
+        copy.eventID = eventID;
+        copy.adminID = adminID;
+        copy.description = description;
+        copy.endDateTime = endDateTime;
+        copy.eventName = eventName;
+        copy.genderSpec = genderSpec;
+        copy.startDateTime = startDateTime;
+        copy.venue = venue;
+        copy.currentAttendees = currentAttendees;
+        copy.pax = pax;
+        copy.imageName = imageName;
+        copy.startEpochMs = startEpochMs;
+        copy.endEpochMs = endEpochMs;
+        return copy;
+    }
+
+    /**True if everything except the attendee count is equal*/
+    public boolean sameDetailsAs(Event other) {
+        return TextUtils.equals(id, other.id)
+                && TextUtils.equals(eventID, other.eventID)
+                && TextUtils.equals(adminID, other.adminID)
+                && TextUtils.equals(description, other.description)
+                && TextUtils.equals(endDateTime, other.endDateTime)
+                && TextUtils.equals(eventName, other.eventName)
+                && genderSpec == other.genderSpec
+                && TextUtils.equals(startDateTime, other.startDateTime)
+                && TextUtils.equals(venue, other.venue)
+                && pax == other.pax
+                && TextUtils.equals(imageName, other.imageName)
+                && startEpochMs == other.startEpochMs
+                && endEpochMs == other.endEpochMs;
+    }
+}
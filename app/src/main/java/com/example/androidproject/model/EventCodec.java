@@ -0,0 +1,123 @@
+package com.example.androidproject.model;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The one place an events document is turned into an {@link Event}.
+ * Decoding walks the document's field map once (no reflection, no per-field lookups),
+ * takes start/end from startEpochMs/endEpochMs (parsing the display strings only for
+ * documents that predate those fields) and normalizes genderSpec.
+ */
+public final class EventCodec {
+    /**Numeric copies of startDateTime/endDateTime that queries can range over and sort by*/
+    public static final String FIELD_START_EPOCH_MS = "startEpochMs";
+    public static final String FIELD_END_EPOCH_MS = "endEpochMs";
+
+    private EventCodec() {}
+
+    /**Decode a snapshot, or null if the document does not exist*/
+    public static Event decode(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        return data != null ? decode(doc.getId(), data) : null;
+    }
+
+    /**Decode a document's field map; missing fields keep the Event defaults*/
+    public static Event decode(String id, Map<String, Object> data) {
+        Event event = new Event();
+        event.setId(id);
+
+        String imageResKey = null;
+        long startEpochMs = Event.NO_TIME;
+        long endEpochMs = Event.NO_TIME;
+        for (Map.Entry<String, Object> field : data.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "eventID": event.setEventID(asString(value)); break;
+                case "adminID": event.setAdminID(asString(value)); break;
+                case "eventName": event.setEventName(asString(value)); break;
+                case "venue": event.setVenue(asString(value)); break;
+                case "description": event.setDescription(asString(value)); break;
+                case "startDateTime": event.setStartDateTime(asString(value)); break;
+                case "endDateTime": event.setEndDateTime(asString(value)); break;
+                case "imageName": event.setImageName(asString(value)); break;
+                case "imageResKey": imageResKey = asString(value); break;
+                case "genderSpec": event.setGenderSpec(normalizeGenderSpec(value)); break;
+                case "currentAttendees": event.setCurrentAttendees(asInt(value)); break;
+                case "pax": event.setPax(asInt(value)); break;
+                case FIELD_START_EPOCH_MS: startEpochMs = asEpoch(value); break;
+                case FIELD_END_EPOCH_MS: endEpochMs = asEpoch(value); break;
+                default: break;
+            }
+        }
+
+        // Older documents only carry the drawable key
+        if (isBlank(event.getImageName()) && !isBlank(imageResKey)) event.setImageName(imageResKey);
+
+        // Documents written or backfilled since the epoch fields exist need no string parsing
+        event.setStartEpochMs(startEpochMs != Event.NO_TIME ? startEpochMs : parseDateTime(event.getStartDateTime()));
+        event.setEndEpochMs(endEpochMs != Event.NO_TIME ? endEpochMs : parseDateTime(event.getEndDateTime()));
+        return event;
+    }
+
+    /**Numeric start/end fields to write next to the display strings, for range queries*/
+    public static Map<String, Object> timeFields(String startDateTime, String endDateTime) {
+        Map<String, Object> fields = new HashMap<>();
+        long start = parseDateTime(startDateTime);
+        long end = parseDateTime(endDateTime);
+        if (start != Event.NO_TIME) fields.put(FIELD_START_EPOCH_MS, start);
+        if (end != Event.NO_TIME) fields.put(FIELD_END_EPOCH_MS, end);
+        return fields;
+    }
+
+    /**
+     * Map a stored genderSpec to Event.GENDER_*. Both admin screens now write the user gender
+     * encoding (1 = male, 0 = female); anything else, including a missing value, means "any".
+     */
+    public static int normalizeGenderSpec(Object raw) {
+        int value;
+        if (raw instanceof Number) {
+            value = ((Number) raw).intValue();
+        } else if (raw instanceof String) {
+            try {
+                value = Integer.parseInt(((String) raw).trim());
+            } catch (NumberFormatException e) {
+                return Event.GENDER_ANY;
+            }
+        } else {
+            return Event.GENDER_ANY;
+        }
+        return value == Event.GENDER_MALE || value == Event.GENDER_FEMALE ? value : Event.GENDER_ANY;
+    }
+
+    /**Parse "dd MMM yyyy, hh:mm a" into epoch millis, or Event.NO_TIME (memoized)*/
+    public static long parseDateTime(String text) {
+        return DateCodec.parseEventDateTime(text);
+    }
+
+    private static String asString(Object value) {
+        return value instanceof String ? (String) value : value != null ? String.valueOf(value) : null;
+    }
+
+    private static long asEpoch(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Event.NO_TIME;
+    }
+
+    private static int asInt(Object value) {
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.androidproject.model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams events as an RFC 5545 iCalendar document, one VEVENT at a time, so exporting holds
+ * no more than the current line in memory however many events there are.
+ * UIDs are derived from the eventID, so importing a newer export updates the same calendar
+ * entries instead of duplicating them. Times are written in UTC; lines end in CRLF and are
+ * folded at 75 octets.
+ */
+public final class IcsWriter {
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final String UID_DOMAIN = "@androidproject.example.com";
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final Writer out;
+    private final String stamp;
+    private final StringBuilder line = new StringBuilder(128);
+    private int written;
+
+    /**@param nowMs export time, written as DTSTAMP on every event*/
+    public IcsWriter(Writer out, long nowMs) {
+        this.out = out;
+        this.stamp = formatUtc(nowMs);
+    }
+
+    public void begin() throws IOException {
+        property("BEGIN", "VCALENDAR");
+        property("VERSION", "2.0");
+        property("PRODID", "-//androidproject//Timetable//EN");
+        property("CALSCALE", "GREGORIAN");
+        property("METHOD", "PUBLISH");
+    }
+
+    /**Write one event; events without a start time cannot be placed in a calendar and are skipped*/
+    public boolean write(Event event) throws IOException {
+        if (event.getStartEpochMs() == Event.NO_TIME) return false;
+
+        long start = event.getStartEpochMs();
+        long end = event.getEndEpochMs() > start ? event.getEndEpochMs() : start;
+
+        property("BEGIN", "VEVENT");
+        property("UID", uidFor(event));
+        property("DTSTAMP", stamp);
+        property("DTSTART", formatUtc(start));
+        property("DTEND", formatUtc(end));
+        text("SUMMARY", event.getEventName() != null ? event.getEventName() : "Unnamed Event");
+        if (event.getVenue() != null) text("LOCATION", event.getVenue());
+        if (event.getDescription() != null) text("DESCRIPTION", event.getDescription());
+        property("END", "VEVENT");
+        written++;
+        return true;
+    }
+
+    public void end() throws IOException {
+        property("END", "VCALENDAR");
+        out.flush();
+    }
+
+    /**Number of VEVENTs written so far*/
+    public int getWritten() {
+        return written;
+    }
+
+    /**Stable across exports and devices: the custom eventID, else the Firestore doc id*/
+    public static String uidFor(Event event) {
+        String key = event.getEventID() != null ? event.getEventID() : event.getId();
+        return key + UID_DOMAIN;
+    }
+
+    /**yyyyMMdd'T'HHmmss'Z' without a formatter or Calendar*/
+    static String formatUtc(long epochMs) {
+        long days = Math.floorDiv(epochMs, DAY_MS);
+        long secondsOfDay = Math.floorMod(epochMs, DAY_MS) / 1000;
+
+        // Civil date from days since 1970-01-01 (proleptic Gregorian)
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        StringBuilder sb = new StringBuilder(16);
+        pad(sb, year, 4);
+        pad(sb, month, 2);
+        pad(sb, day, 2);
+        sb.append('T');
+        pad(sb, secondsOfDay / 3600, 2);
+        pad(sb, secondsOfDay / 60 % 60, 2);
+        pad(sb, secondsOfDay % 60, 2);
+        return sb.append('Z').toString();
+    }
+
+    private static void pad(StringBuilder sb, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) sb.append('0');
+        sb.append(digits);
+    }
+
+    private void property(String name, String value) throws IOException {
+        line.setLength(0);
+        line.append(name).append(':').append(value);
+        flushLine();
+    }
+
+    /**TEXT value: backslash, semicolon, comma and newlines escaped (RFC 5545 3.3.11)*/
+    private void text(String name, String value) throws IOException {
+        line.setLength(0);
+        line.append(name).append(':');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case ';': line.append("\\;"); break;
+                case ',': line.append("\\,"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': break;
+                default: line.append(c); break;
+            }
+        }
+        flushLine();
+    }
+
+    /**Write the buffered line, folding so no physical line exceeds 75 UTF-8 octets*/
+    private void flushLine() throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < line.length();
+            int size = pair ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (octets + size > MAX_LINE_OCTETS) {
+                // Continuation lines start with a space, which counts toward their 75
+                out.write(CRLF);
+                out.write(' ');
+                octets = 1;
+            }
+            out.write(c);
+            if (pair) out.write(line.charAt(++i));
+            octets += size;
+        }
+        out.write(CRLF);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.androidproject.model;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * The public part of a user document, as shown on attendee lists.
+ * Immutable, so one instance can be cached and shared between screens.
+ */
+public final class UserProfile {
+    private final String userID;
+    private final String name;
+    private final String email;
+    private final String phoneNumber;
+    private final String profilePic;
+    private final Long gender;
+
+    public UserProfile(String userID, String name, String email, String phoneNumber, String profilePic, Long gender) {
+        this.userID = userID;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.profilePic = profilePic;
+        this.gender = gender;
+    }
+
+    /**Decode a user document, or null if it does not exist or has no userID*/
+    public static UserProfile decode(DocumentSnapshot doc) {
+        if (!doc.exists()) return null;
+        String userID = doc.getString("userID");
+        if (userID == null) return null;
+        return new UserProfile(userID,
+                doc.getString("name"),
+                doc.getString("email"),
+                doc.getString("phoneNumber"),
+                doc.getString("profilePic"),
+                doc.getLong("gender"));
+    }
+
+    public String getUserID() { return userID; }
+
+    public String getName() { return name; }
+
+    public String getEmail() { return email; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+
+    public String getProfilePic() { return profilePic; }
+
+    /**0 = female, 1 = male, null if never set*/
+    public Long getGender() { return gender; }
+}
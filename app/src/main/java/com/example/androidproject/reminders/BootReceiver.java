@@ -0,0 +1,18 @@
+package com.example.androidproject.reminders;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**Alarms do not survive a reboot; re-register reminders from the timetable saved on the device*/
+public class BootReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) return;
+
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+        scheduler.onBoot();
+        PendingResult pending = goAsync();
+        scheduler.syncFromDisk(pending::finish);
+    }
+}
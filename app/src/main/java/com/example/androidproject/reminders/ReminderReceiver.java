@@ -0,0 +1,66 @@
+package com.example.androidproject.reminders;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.example.androidproject.R;
+import com.example.androidproject.UserTimetableActivity;
+
+/**Shows an event reminder, then lets the scheduler move its window on to the next event*/
+public class ReminderReceiver extends BroadcastReceiver {
+    private static final String CHANNEL_ID = "event_reminders";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String eventDocId = intent.getStringExtra(ReminderScheduler.EXTRA_EVENT_ID);
+        if (eventDocId == null) return;
+
+        showNotification(context, eventDocId,
+                intent.getStringExtra(ReminderScheduler.EXTRA_EVENT_NAME),
+                intent.getStringExtra(ReminderScheduler.EXTRA_START),
+                intent.getStringExtra(ReminderScheduler.EXTRA_VENUE));
+
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+        scheduler.onFired(eventDocId);
+        PendingResult pending = goAsync();
+        scheduler.syncFromDisk(pending::finish);
+    }
+
+    private static void showNotification(Context context, String eventDocId, String name, String start, String venue) {
+        NotificationManagerCompat manager = NotificationManagerCompat.from(context);
+        // Without the permission (Android 13+) notify() would be dropped anyway
+        if (!manager.areNotificationsEnabled()) return;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Event reminders",
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        Intent open = new Intent(context, UserTimetableActivity.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        String text = "Starts " + (start != null ? start : "soon") + (venue != null ? " at " + venue : "");
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_schedule)
+                .setContentTitle(name != null ? name : "Upcoming event")
+                .setContentText(text)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true);
+        try {
+            manager.notify(eventDocId.hashCode(), builder.build());
+        } catch (SecurityException e) {
+            // Permission revoked between the check and the post
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.androidproject.reminders;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+
+import com.example.androidproject.data.TimetableDiskCache;
+import com.example.androidproject.data.TimetableStore;
+import com.example.androidproject.model.Event;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Schedules a local reminder a configurable lead time before each joined event.
+ * Reminders are derived from {@link TimetableStore} and re-synced on every change to it, and
+ * only the difference is applied: each registered alarm is remembered with a signature of its
+ * trigger time and text, so opening the app re-registers nothing, and a join, leave or admin
+ * edit touches just that event's alarm. Only the nearest MAX_SCHEDULED reminders are held by
+ * AlarmManager at once; the window moves forward as reminders fire.
+ * Registered alarms are recorded per account (userID). They survive a sign-out and are
+ * cancelled only on an explicit logout or when another account takes the device over.
+ */
+public class ReminderScheduler implements TimetableStore.Listener {
+    private static final String TAG = "ReminderScheduler";
+    private static final String PREFS_SETTINGS = "reminder_settings";
+    private static final String KEY_LEAD_MINUTES = "leadMinutes";
+    // userID whose reminders are registered
+    private static final String KEY_OWNER = "owner";
+    // Registered alarms, one file per userID: event doc id -> signature
+    private static final String PREFS_ALARMS = "reminder_alarms_";
+    private static final int DEFAULT_LEAD_MINUTES = 30;
+    // Well under the per-app alarm limit; later reminders are added as earlier ones fire
+    private static final int MAX_SCHEDULED = 50;
+
+    /**Lead times offered to the user, in minutes (0 = off)*/
+    public static final int[] LEAD_CHOICES_MINUTES = {0, 10, 30, 60, 24 * 60};
+
+    static final String EXTRA_EVENT_ID = "eventDocId";
+    static final String EXTRA_EVENT_NAME = "eventName";
+    static final String EXTRA_START = "startDateTime";
+    static final String EXTRA_VENUE = "venue";
+
+    private static ReminderScheduler instance;
+
+    private final Context appContext;
+    private final AlarmManager alarmManager;
+    private final SharedPreferences settings;
+    private final TimetableStore store;
+    // Owner's registered alarms; both null until an account is attached
+    private String owner;
+    private SharedPreferences alarms;
+
+    public static synchronized ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReminderScheduler(context.getApplicationContext(), TimetableStore.getInstance());
+        }
+        return instance;
+    }
+
+    private ReminderScheduler(Context appContext, TimetableStore store) {
+        this.appContext = appContext;
+        this.alarmManager = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
+        this.settings = appContext.getSharedPreferences(PREFS_SETTINGS, Context.MODE_PRIVATE);
+        this.store = store;
+        this.owner = settings.getString(KEY_OWNER, null);
+        if (owner != null) this.alarms = alarmsFor(owner);
+        store.addListener(this);
+    }
+
+    /**Minutes before the start that reminders fire; 0 = reminders off*/
+    public int getLeadMinutes() {
+        return settings.getInt(KEY_LEAD_MINUTES, DEFAULT_LEAD_MINUTES);
+    }
+
+    public void setLeadMinutes(int minutes) {
+        settings.edit().putInt(KEY_LEAD_MINUTES, Math.max(0, minutes)).apply();
+        sync();
+    }
+
+    /**
+     * Keep this account's reminders in line with the store from now on. Reminders another
+     * account left registered are cancelled first.
+     */
+    public synchronized void attach(String userID) {
+        if (!userID.equals(owner)) {
+            cancelAll();
+            owner = userID;
+            alarms = alarmsFor(userID);
+            settings.edit().putString(KEY_OWNER, userID).apply();
+        }
+        sync();
+    }
+
+    @Override
+    public void onTimetableChanged() {
+        sync();
+    }
+
+    /**
+     * Bring registered alarms in line with the store in one pass: cancel what is no longer
+     * wanted, register what is new or changed, and persist the result with a single edit.
+     * Does nothing until an account is attached and the store holds a timetable, so an empty
+     * store at startup or after a sign-out never cancels anything.
+     */
+    public synchronized void sync() {
+        if (alarms == null || !store.isLoaded()) return;
+
+        long now = System.currentTimeMillis();
+        long leadMs = getLeadMinutes() * 60_000L;
+        Map<String, Event> wanted = new LinkedHashMap<>();
+        Map<String, String> signatures = new HashMap<>();
+        if (leadMs > 0) {
+            // Chronological order, so the window is the nearest upcoming reminders
+            for (Event event : store.all()) {
+                if (wanted.size() >= MAX_SCHEDULED) break;
+                if (event.getStartEpochMs() == Event.NO_TIME) continue;
+                long triggerAt = event.getStartEpochMs() - leadMs;
+                if (triggerAt <= now) continue;
+                wanted.put(event.getId(), event);
+                signatures.put(event.getId(), signature(triggerAt, event));
+            }
+        }
+
+        Map<String, ?> registered = alarms.getAll();
+        SharedPreferences.Editor edit = alarms.edit();
+        int cancelled = 0;
+        int scheduled = 0;
+
+        for (String id : registered.keySet()) {
+            if (wanted.containsKey(id)) continue;
+            alarmManager.cancel(pendingIntent(id, null));
+            edit.remove(id);
+            cancelled++;
+        }
+
+        for (Event event : wanted.values()) {
+            String signature = signatures.get(event.getId());
+            if (signature.equals(registered.get(event.getId()))) continue;
+            long triggerAt = event.getStartEpochMs() - leadMs;
+            // Inexact is fine for a reminder and needs no exact-alarm permission
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent(event.getId(), event));
+            edit.putString(event.getId(), signature);
+            scheduled++;
+        }
+
+        if (cancelled + scheduled > 0) {
+            edit.apply();
+            Log.d(TAG, "Reminders synced: " + scheduled + " scheduled, " + cancelled + " cancelled");
+        }
+    }
+
+    /**Cancel every reminder of the attached account and detach it (explicit logout, account change)*/
+    public synchronized void cancelAll() {
+        if (alarms == null) return;
+        for (String id : alarms.getAll().keySet()) {
+            alarmManager.cancel(pendingIntent(id, null));
+        }
+        alarms.edit().clear().apply();
+        settings.edit().remove(KEY_OWNER).apply();
+        owner = null;
+        alarms = null;
+    }
+
+    /**A reminder fired: forget it so the window can take in the next one*/
+    synchronized void onFired(String eventDocId) {
+        if (alarms != null) alarms.edit().remove(eventDocId).apply();
+    }
+
+    /**The system dropped every alarm at reboot; forget what was registered*/
+    synchronized void onBoot() {
+        if (alarms != null) alarms.edit().clear().apply();
+    }
+
+    /**
+     * Sync from the timetable on the device, no network needed: the store is filled from the
+     * disk copy first if this process has not loaded it. Runs done on the main thread.
+     */
+    void syncFromDisk(Runnable done) {
+        String userID;
+        synchronized (this) {
+            userID = owner;
+        }
+        if (userID == null) {
+            done.run();
+            return;
+        }
+        TimetableDiskCache.getInstance(appContext).restore(userID, () -> {
+            sync();
+            done.run();
+        });
+    }
+
+    private SharedPreferences alarmsFor(String userID) {
+        return appContext.getSharedPreferences(PREFS_ALARMS + userID, Context.MODE_PRIVATE);
+    }
+
+    /**Only a change to what the reminder shows or when it fires needs a re-registration*/
+    private static String signature(long triggerAt, Event event) {
+        return triggerAt + "|" + event.getEventName() + "|" + event.getStartDateTime() + "|" + event.getVenue();
+    }
+
+    /**Matched by data URI only, so the same intent cancels an alarm whatever its extras*/
+    private PendingIntent pendingIntent(String eventDocId, Event event) {
+        Intent intent = new Intent(appContext, ReminderReceiver.class)
+                .setData(Uri.fromParts("reminder", eventDocId, null));
+        if (event != null) {
+            intent.putExtra(EXTRA_EVENT_ID, eventDocId);
+            intent.putExtra(EXTRA_EVENT_NAME, event.getEventName());
+            intent.putExtra(EXTRA_START, event.getStartDateTime());
+            intent.putExtra(EXTRA_VENUE, event.getVenue());
+        }
+        return PendingIntent.getBroadcast(appContext, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
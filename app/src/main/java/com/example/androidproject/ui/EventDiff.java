@@ -0,0 +1,36 @@
+package com.example.androidproject.ui;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.androidproject.model.Event;
+
+/**
+ * The one diff used by every event list. Rows are matched by Firestore doc id; when only the
+ * attendee count changed the change carries {@link #PAYLOAD_CAPACITY}, so adapters rebind
+ * just the capacity text.
+ */
+public final class EventDiff {
+    public static final Object PAYLOAD_CAPACITY = new Object();
+
+    public static final DiffUtil.ItemCallback<Event> CALLBACK = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return TextUtils.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.sameDetailsAs(newItem) && oldItem.getCurrentAttendees() == newItem.getCurrentAttendees();
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.sameDetailsAs(newItem) ? PAYLOAD_CAPACITY : null;
+        }
+    };
+
+    private EventDiff() {}
+}
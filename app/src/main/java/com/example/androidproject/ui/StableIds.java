@@ -0,0 +1,22 @@
+package com.example.androidproject.ui;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stable RecyclerView item ids for rows keyed by a string (a Firestore doc id): each key gets
+ * the next number the first time it is seen and keeps it for the adapter's lifetime.
+ * Main thread only, like the adapters that use it.
+ */
+public final class StableIds {
+    private final Map<String, Long> ids = new HashMap<>();
+
+    public long idFor(String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.androidproject.data;
+
+import com.example.androidproject.model.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for ConflictDetector overlap checks, including a randomized comparison
+ * against a pairwise scan.
+ */
+public class ConflictDetectorTest {
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    private static final long T0 = 1_741_000_000_000L;
+
+    @Test
+    public void firstConflict_ignoresTouchingIntervals() {
+        ConflictDetector detector = ConflictDetector.build(Arrays.asList(
+                event("morning", T0, T0 + HOUR_MS)));
+
+        assertNull(detector.firstConflict(event("next", T0 + HOUR_MS, T0 + 2 * HOUR_MS)));
+        assertNull(detector.firstConflict(event("before", T0 - HOUR_MS, T0)));
+    }
+
+    @Test
+    public void firstConflict_findsOverlappingIntervals() {
+        Event morning = event("morning", T0, T0 + HOUR_MS);
+        ConflictDetector detector = ConflictDetector.build(Arrays.asList(morning));
+
+        assertSame(morning, detector.firstConflict(event("late", T0 + HOUR_MS - 1, T0 + 2 * HOUR_MS)));
+        assertSame(morning, detector.firstConflict(event("inside", T0 + 10, T0 + 20)));
+        assertSame(morning, detector.firstConflict(event("around", T0 - HOUR_MS, T0 + 2 * HOUR_MS)));
+    }
+
+    @Test
+    public void firstConflict_treatsMissingOrInvertedEndAsInstant() {
+        ConflictDetector detector = ConflictDetector.build(Arrays.asList(
+                event("open", T0, Event.NO_TIME),
+                event("inverted", T0 + 2 * HOUR_MS, T0 + HOUR_MS)));
+
+        assertEquals("open", detector.firstConflict(event("a", T0, T0 + 1)).getId());
+        assertNull(detector.firstConflict(event("b", T0 + 1, T0 + HOUR_MS)));
+        assertEquals("inverted", detector.firstConflict(event("c", T0 + HOUR_MS, T0 + 3 * HOUR_MS)).getId());
+        // A candidate without an end still occupies its start instant
+        assertEquals("open", detector.firstConflict(event("d", T0, Event.NO_TIME)).getId());
+    }
+
+    @Test
+    public void build_leavesOutEventsWithoutStart() {
+        ConflictDetector detector = ConflictDetector.build(Arrays.asList(
+                event("untimed", Event.NO_TIME, Event.NO_TIME)));
+
+        assertSame(ConflictDetector.EMPTY, detector);
+        assertNull(detector.firstConflict(event("a", T0, T0 + HOUR_MS)));
+        assertTrue(detector.conflictsWith(event("b", Event.NO_TIME, T0)).isEmpty());
+    }
+
+    @Test
+    public void firstConflict_skipsTheCandidateItself() {
+        Event joined = event("a", T0, T0 + HOUR_MS);
+        ConflictDetector detector = ConflictDetector.build(Arrays.asList(joined));
+
+        assertNull(detector.firstConflict(joined));
+        // The same event as loaded by another screen
+        assertNull(detector.firstConflict(event("a", T0, T0 + HOUR_MS)));
+    }
+
+    @Test
+    public void conflictsWith_matchesPairwiseScan() {
+        Random random = new Random(3);
+        List<Event> joined = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long start = T0 + random.nextInt(500) * HOUR_MS / 4;
+            joined.add(event("j" + i, start, start + random.nextInt(16) * HOUR_MS / 4));
+        }
+        ConflictDetector detector = ConflictDetector.build(joined);
+
+        for (int i = 0; i < 200; i++) {
+            long start = T0 + random.nextInt(520) * HOUR_MS / 4;
+            Event candidate = event("c" + i, start, start + random.nextInt(12) * HOUR_MS / 4);
+
+            List<String> expected = new ArrayList<>();
+            for (Event event : joined) {
+                if (overlaps(event, candidate)) expected.add(event.getId());
+            }
+            List<String> actual = new ArrayList<>();
+            for (Event event : detector.conflictsWith(candidate)) actual.add(event.getId());
+            Collections.sort(expected);
+            Collections.sort(actual);
+
+            assertEquals(expected, actual);
+            assertEquals(expected.isEmpty(), detector.firstConflict(candidate) == null);
+        }
+    }
+
+    /**Half-open overlap, with a missing or inverted end read as start + 1*/
+    private static boolean overlaps(Event a, Event b) {
+        return a.getStartEpochMs() < endOf(b) && b.getStartEpochMs() < endOf(a);
+    }
+
+    private static long endOf(Event event) {
+        long end = event.getEndEpochMs();
+        return end == Event.NO_TIME || end <= event.getStartEpochMs() ? event.getStartEpochMs() + 1 : end;
+    }
+
+    private static Event event(String id, long start, long end) {
+        Event event = new Event();
+        event.setId(id);
+        event.setEventID("E" + id);
+        event.setStartEpochMs(start);
+        event.setEndEpochMs(end);
+        return event;
+    }
+}
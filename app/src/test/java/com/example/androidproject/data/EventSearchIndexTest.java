@@ -0,0 +1,132 @@
+package com.example.androidproject.data;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for EventSearchIndex matching, including queries over an index of 10k
+ * synthetic events checked against a linear scan.
+ */
+public class EventSearchIndexTest {
+    private static final String[] WORDS = {
+            "yoga", "pilates", "wine", "tasting", "coding", "workshop", "marathon", "jazz",
+            "night", "market", "photography", "walk", "cooking", "class", "chess", "club",
+            "robotics", "salsa", "book", "swap", "film", "festival", "startup", "pitch"
+    };
+    private static final String[] VENUES = {"Hall A", "Level 3 Studio", "Rooftop Garden", "Main Library", "Sports Centre"};
+
+    @Test
+    public void search_matchesEveryWordAsTokenPrefix() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.put("a", "Sunrise Yoga", "Rooftop Garden", "Bring a mat");
+        index.put("b", "Yoga for runners", "Hall A", null);
+        index.put("c", "Wine tasting", "Rooftop Bar", "Reds and whites");
+
+        assertEquals(set("a", "b"), index.search("yoga"));
+        assertEquals(set("a", "b"), index.search("yo"));
+        // Every word has to match, each in any field
+        assertEquals(set("a"), index.search("yoga rooftop"));
+        assertEquals(set("c"), index.search("roof wine"));
+        assertEquals(set(), index.search("yoga wine"));
+    }
+
+    @Test
+    public void search_foldsCaseAndIgnoresPunctuation() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.put("a", "Jazz Night!", "Hall A", "Live music, 8pm");
+
+        assertEquals(set("a"), index.search("JAZZ"));
+        assertEquals(set("a"), index.search("  jAzZ,   NIGHT  "));
+        assertEquals(set("a"), index.search("8pm"));
+        assertEquals(set(), index.search(" , ! "));
+    }
+
+    @Test
+    public void search_doesNotMatchInsideWords() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.put("a", "Photography walk", null, null);
+
+        assertEquals(set("a"), index.search("photo"));
+        // "graph" only occurs inside a word, so it is not a token prefix
+        assertEquals(set(), index.search("graph"));
+        assertEquals(set(), index.search("alk"));
+    }
+
+    @Test
+    public void putAndRemove_replaceWhatWasIndexed() {
+        EventSearchIndex index = new EventSearchIndex();
+        index.put("a", "Chess club", null, null);
+        index.put("b", "Chess night", null, null);
+        index.put("a", "Book swap", null, null);
+
+        assertEquals(set("b"), index.search("chess"));
+        assertEquals(set("a"), index.search("book"));
+
+        index.remove("b");
+        assertEquals(set(), index.search("chess"));
+        assertEquals(1, index.size());
+
+        // A freed slot is reused without leaking the old document's tokens
+        index.put("c", "Film festival", null, null);
+        assertEquals(set("c"), index.search("film"));
+        assertEquals(set(), index.search("night"));
+    }
+
+    @Test
+    public void search_over10kEventsMatchesLinearScan() {
+        final int events = 10_000;
+        EventSearchIndex index = new EventSearchIndex();
+        Map<String, Set<String>> tokensById = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < events; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String venue = VENUES[i % VENUES.length];
+            String description = "Session " + i + " about " + WORDS[random.nextInt(WORDS.length)]
+                    + " and " + WORDS[random.nextInt(WORDS.length)];
+            index.put("doc" + i, name, venue, description);
+
+            Set<String> tokens = new HashSet<>();
+            for (String field : new String[] {name, venue, description}) EventSearchIndex.tokenize(field, tokens);
+            tokensById.put("doc" + i, tokens);
+        }
+        assertEquals(events, index.size());
+
+        String[] queries = {"yoga", "wi", "jazz night", "rooftop", "s", "photo walk", "c", "market hall", "zzz", "book sw"};
+        for (String query : queries) {
+            Set<String> words = EventSearchIndex.tokenize(query, new HashSet<>());
+            Set<String> expected = new HashSet<>();
+            for (Map.Entry<String, Set<String>> doc : tokensById.entrySet()) {
+                if (matchesAll(doc.getValue(), words)) expected.add(doc.getKey());
+            }
+            assertEquals(query, expected, index.search(query));
+        }
+    }
+
+    /**Every word is a prefix of at least one token*/
+    private static boolean matchesAll(Set<String> tokens, Set<String> words) {
+        for (String word : words) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static Set<String> set(String... ids) {
+        Set<String> out = new HashSet<>();
+        for (String id : ids) out.add(id);
+        return out;
+    }
+}
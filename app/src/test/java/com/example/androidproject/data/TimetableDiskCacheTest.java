@@ -0,0 +1,150 @@
+package com.example.androidproject.data;
+
+import com.example.androidproject.model.Event;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the TimetableDiskCache file format.
+ */
+public class TimetableDiskCacheTest {
+
+    @Test
+    public void decode_roundTripsEveryField() throws IOException {
+        Event full = event(1);
+        full.setDescription("Línea uno\nline two " + new String(new char[5000]).replace('\0', 'x'));
+        Event sparse = new Event();
+        sparse.setId("sparse");
+        sparse.setStartEpochMs(Event.NO_TIME);
+        sparse.setEndEpochMs(Event.NO_TIME);
+
+        List<Event> decoded = decode(encode("U1", Arrays.asList(full, sparse)), "U1");
+
+        assertEquals(2, decoded.size());
+        assertSameFields(full, decoded.get(0));
+        assertEquals("sparse", decoded.get(1).getId());
+        assertNull(decoded.get(1).getEventName());
+        assertEquals(Event.NO_TIME, decoded.get(1).getStartEpochMs());
+    }
+
+    @Test
+    public void decode_emptyTimetable() throws IOException {
+        assertEquals(0, decode(encode("U1", Collections.<Event>emptyList()), "U1").size());
+    }
+
+    @Test
+    public void decode_rejectsAnotherUsersFile() throws IOException {
+        assertNull(decode(encode("U1", Collections.singletonList(event(1))), "U2"));
+    }
+
+    @Test
+    public void decode_rejectsUnknownHeader() throws IOException {
+        byte[] bytes = encode("U1", Collections.singletonList(event(1)));
+        byte[] badMagic = bytes.clone();
+        badMagic[0] ^= 0x7f;
+        byte[] badVersion = bytes.clone();
+        badVersion[7] = 99;
+
+        assertNull(decode(badMagic, "U1"));
+        assertNull(decode(badVersion, "U1"));
+    }
+
+    @Test
+    public void decode_rejectsTruncatedFile() throws IOException {
+        byte[] bytes = encode("U1", Arrays.asList(event(1), event(2)));
+        for (int length : new int[] {0, 6, 20, bytes.length / 2, bytes.length - 1}) {
+            try {
+                decode(Arrays.copyOf(bytes, length), "U1");
+                fail("Decoded a file cut to " + length + " of " + bytes.length + " bytes");
+            } catch (EOFException expected) {
+                // The cache discards the file and waits for the network load
+            }
+        }
+    }
+
+    @Test
+    public void decode_rejectsCorruptLengths() throws IOException {
+        byte[] header = encode("U1", Collections.<Event>emptyList());
+        // Header is magic, version, owner ("U1" prefixed by its length), then the event count
+        int countOffset = header.length - 4;
+
+        byte[] negativeCount = header.clone();
+        negativeCount[countOffset] = (byte) 0x80;
+        try {
+            decode(negativeCount, "U1");
+            fail("Decoded a negative event count");
+        } catch (IOException expected) {
+            // rejected
+        }
+
+        byte[] hugeString = encode("U1", Collections.singletonList(event(1)));
+        // First field after the count is the event's doc id length
+        hugeString[countOffset + 4] = 0x7f;
+        try {
+            decode(hugeString, "U1");
+            fail("Decoded a string longer than any field");
+        } catch (IOException expected) {
+            // rejected without allocating it
+        }
+    }
+
+    private static byte[] encode(String userID, List<Event> events) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        TimetableDiskCache.encode(out, userID, events);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static List<Event> decode(byte[] bytes, String userID) throws IOException {
+        return TimetableDiskCache.decode(new DataInputStream(new ByteArrayInputStream(bytes)), userID);
+    }
+
+    private static void assertSameFields(Event expected, Event actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getEventID(), actual.getEventID());
+        assertEquals(expected.getAdminID(), actual.getAdminID());
+        assertEquals(expected.getEventName(), actual.getEventName());
+        assertEquals(expected.getVenue(), actual.getVenue());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getStartDateTime(), actual.getStartDateTime());
+        assertEquals(expected.getEndDateTime(), actual.getEndDateTime());
+        assertEquals(expected.getImageName(), actual.getImageName());
+        assertEquals(expected.getGenderSpec(), actual.getGenderSpec());
+        assertEquals(expected.getCurrentAttendees(), actual.getCurrentAttendees());
+        assertEquals(expected.getPax(), actual.getPax());
+        assertEquals(expected.getStartEpochMs(), actual.getStartEpochMs());
+        assertEquals(expected.getEndEpochMs(), actual.getEndEpochMs());
+    }
+
+    private static Event event(int i) {
+        Event event = new Event();
+        event.setId("doc" + i);
+        event.setEventID("E" + i);
+        event.setAdminID("A1");
+        event.setEventName("Event " + i);
+        event.setVenue("Hall " + i);
+        event.setDescription("Description " + i);
+        event.setStartDateTime("05 Mar 2025, 09:00 AM");
+        event.setEndDateTime("05 Mar 2025, 11:00 AM");
+        event.setImageName("event_pilates");
+        event.setGenderSpec(Event.GENDER_FEMALE);
+        event.setCurrentAttendees(7);
+        event.setPax(30);
+        event.setStartEpochMs(1_741_165_200_000L + i);
+        event.setEndEpochMs(1_741_172_400_000L + i);
+        return event;
+    }
+}
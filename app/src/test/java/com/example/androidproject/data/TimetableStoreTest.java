@@ -0,0 +1,138 @@
+package com.example.androidproject.data;
+
+import com.example.androidproject.model.DateCodec;
+import com.example.androidproject.model.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for TimetableStore range lookups, day buckets and reconciliation.
+ */
+public class TimetableStoreTest {
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    // A Monday well away from any DST change
+    private static final long DAY = DateCodec.epochDay(DateCodec.parseEventDateTime("16 Jun 2025, 12:00 PM"));
+
+    private TimetableStore store;
+
+    @Before
+    public void setUp() {
+        store = TimetableStore.getInstance();
+        store.clear();
+    }
+
+    @Test
+    public void startingBetween_includesBothBounds() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Arrays.asList(
+                event("a", midnight, midnight + HOUR_MS),
+                event("b", midnight + 2 * HOUR_MS, midnight + 3 * HOUR_MS),
+                event("c", midnight + 4 * HOUR_MS, midnight + 5 * HOUR_MS)));
+
+        assertEquals(ids("a", "b", "c"), idsOf(store.startingBetween(midnight, midnight + 4 * HOUR_MS)));
+        assertEquals(ids("b"), idsOf(store.startingBetween(midnight + 1, midnight + 4 * HOUR_MS - 1)));
+        assertEquals(ids(), idsOf(store.startingBetween(midnight + 5 * HOUR_MS, Long.MAX_VALUE)));
+        assertEquals(ids(), idsOf(store.startingBetween(midnight + HOUR_MS, midnight)));
+    }
+
+    @Test
+    public void startingBetween_neverMatchesEventsWithoutStart() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Arrays.asList(
+                event("timed", midnight, midnight + HOUR_MS),
+                event("untimed", Event.NO_TIME, Event.NO_TIME)));
+
+        assertEquals(ids("timed"), idsOf(store.startingBetween(Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertEquals(ids("timed", "untimed"), idsOf(store.all()));
+        assertEquals(ids(), idsOf(store.onDay(0)));
+    }
+
+    @Test
+    public void onDay_endAtMidnightStaysOnTheDayBefore() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        long nextMidnight = DateCodec.dayStartMs(DAY + 1);
+        store.restore(Arrays.asList(
+                event("evening", midnight + 22 * HOUR_MS, nextMidnight),
+                event("overnight", midnight + 22 * HOUR_MS, nextMidnight + 1)));
+
+        assertEquals(ids("evening", "overnight"), idsOf(store.onDay(DAY)));
+        assertEquals(ids("overnight"), idsOf(store.onDay(DAY + 1)));
+        assertArrayEquals(new int[] {0, 2, 1, 0}, store.countsFrom(DAY - 1, 4));
+    }
+
+    @Test
+    public void onDay_capsBucketsForRunawayEnds() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Collections.singletonList(
+                event("runaway", midnight + HOUR_MS, DateCodec.dayStartMs(DAY + 400))));
+
+        assertEquals(ids("runaway"), idsOf(store.onDay(DAY + 61)));
+        assertEquals(ids(), idsOf(store.onDay(DAY + 62)));
+    }
+
+    @Test
+    public void onDay_invertedEndCountsAsStartDayOnly() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Collections.singletonList(event("inverted", midnight + HOUR_MS, midnight - HOUR_MS)));
+
+        assertEquals(ids("inverted"), idsOf(store.onDay(DAY)));
+        assertEquals(ids(), idsOf(store.onDay(DAY - 1)));
+    }
+
+    @Test
+    public void upsert_movesEventBetweenBuckets() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Collections.singletonList(event("a", midnight + HOUR_MS, midnight + 2 * HOUR_MS)));
+
+        long tomorrow = DateCodec.dayStartMs(DAY + 1);
+        store.upsert(event("a", tomorrow + HOUR_MS, tomorrow + 2 * HOUR_MS));
+
+        assertEquals(ids(), idsOf(store.onDay(DAY)));
+        assertEquals(ids("a"), idsOf(store.onDay(DAY + 1)));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void reconcile_partialLoadKeepsMissingEvents() {
+        long midnight = DateCodec.dayStartMs(DAY);
+        store.restore(Arrays.asList(
+                event("a", midnight, midnight + HOUR_MS),
+                event("b", midnight + 2 * HOUR_MS, midnight + 3 * HOUR_MS)));
+
+        store.reconcile(Collections.singletonList(event("c", midnight + 4 * HOUR_MS, midnight + 5 * HOUR_MS)), true);
+        assertEquals(ids("a", "b", "c"), idsOf(store.all()));
+        assertFalse(store.isSynced());
+
+        store.reconcile(Collections.singletonList(event("d", midnight + HOUR_MS, midnight + 2 * HOUR_MS)), false);
+        assertEquals(ids("d"), idsOf(store.all()));
+        assertEquals(ids("d"), idsOf(store.onDay(DAY)));
+        assertTrue(store.isSynced());
+    }
+
+    private static Event event(String id, long start, long end) {
+        Event event = new Event();
+        event.setId(id);
+        event.setEventID("E" + id);
+        event.setEventName(id);
+        event.setStartEpochMs(start);
+        event.setEndEpochMs(end);
+        return event;
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> idsOf(List<Event> events) {
+        String[] ids = new String[events.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = events.get(i).getId();
+        return Arrays.asList(ids);
+    }
+}
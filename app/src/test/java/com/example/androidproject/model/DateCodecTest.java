@@ -0,0 +1,163 @@
+package com.example.androidproject.model;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for DateCodec, including a check that a timetable filter pass matches the
+ * previous path (shared SimpleDateFormat parse and three Calendars per event).
+ */
+public class DateCodecTest {
+
+    @Test
+    public void parse_matchesSimpleDateFormat() throws Exception {
+        String text = "05 Mar 2025, 09:30 PM";
+        long expected = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, DateCodec.EVENT_DATE_TIME_LOCALE).parse(text).getTime();
+
+        assertEquals(expected, DateCodec.parseEventDateTime(text));
+        assertEquals(expected, DateCodec.parseEventDateTime(" " + text + " "));
+        assertEquals(text, DateCodec.formatEventDateTime(expected));
+    }
+
+    @Test
+    public void parse_ignoresDeviceLanguage() throws Exception {
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.FRANCE);
+            DateCodec.clearCache();
+            String text = "05 Mar 2025, 09:30 PM";
+            long expected = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, Locale.US).parse(text).getTime();
+
+            assertEquals(expected, DateCodec.parseEventDateTime(text));
+            assertEquals(text, DateCodec.formatEventDateTime(expected));
+
+            // Strings an older build wrote in the device language still parse
+            String french = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, Locale.FRANCE).format(new Date(expected));
+            assertEquals(expected, DateCodec.parseEventDateTime(french));
+        } finally {
+            Locale.setDefault(saved);
+            DateCodec.clearCache();
+        }
+    }
+
+    @Test
+    public void parse_invalidInputIsNoTime() {
+        assertEquals(Event.NO_TIME, DateCodec.parseEventDateTime(null));
+        assertEquals(Event.NO_TIME, DateCodec.parseEventDateTime(""));
+        assertEquals(Event.NO_TIME, DateCodec.parseEventDateTime("not a date"));
+    }
+
+    @Test
+    public void dayRange_isInclusiveOfWholeDays() {
+        Calendar from = Calendar.getInstance();
+        from.set(2025, Calendar.MARCH, 3, 15, 45, 10);
+        Calendar to = Calendar.getInstance();
+        to.set(2025, Calendar.MARCH, 5, 8, 0, 0);
+
+        DateCodec.DayRange range = DateCodec.dayRange(from.getTimeInMillis(), to.getTimeInMillis());
+
+        assertTrue(range.contains(DateCodec.parseEventDateTime("03 Mar 2025, 12:00 AM")));
+        assertTrue(range.contains(DateCodec.parseEventDateTime("05 Mar 2025, 11:59 PM")));
+        assertFalse(range.contains(DateCodec.parseEventDateTime("02 Mar 2025, 11:59 PM")));
+        assertFalse(range.contains(DateCodec.parseEventDateTime("06 Mar 2025, 12:00 AM")));
+        assertFalse(range.contains(Event.NO_TIME));
+    }
+
+    @Test
+    public void parse_isSafeAcrossThreads() throws Exception {
+        List<String> texts = sampleTexts(2_000);
+        long[] expected = new long[texts.size()];
+        SimpleDateFormat reference = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, DateCodec.EVENT_DATE_TIME_LOCALE);
+        for (int i = 0; i < texts.size(); i++) expected[i] = reference.parse(texts.get(i)).getTime();
+        DateCodec.clearCache();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < texts.size(); i++) {
+                        if (DateCodec.parseEventDateTime(texts.get(i)) != expected[i]) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) assertTrue(result.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void filterPass_matchesLegacyPath() throws Exception {
+        List<String> texts = sampleTexts(2_000);
+        Calendar pickedStart = Calendar.getInstance();
+        pickedStart.set(2025, Calendar.MARCH, 10);
+        Calendar pickedEnd = Calendar.getInstance();
+        pickedEnd.set(2025, Calendar.MARCH, 20);
+
+        int matches = codecPass(texts, pickedStart, pickedEnd);
+        assertTrue(matches > 0);
+        assertEquals(legacyPass(texts, pickedStart, pickedEnd), matches);
+    }
+
+    /**The old isEventInDateRange: parse with a shared formatter, one Calendar and two clones per event*/
+    private static int legacyPass(List<String> texts, Calendar pickedStart, Calendar pickedEnd) throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, DateCodec.EVENT_DATE_TIME_LOCALE);
+        int matches = 0;
+        for (String text : texts) {
+            Date start = format.parse(text);
+            Calendar eventCal = Calendar.getInstance();
+            eventCal.setTime(start);
+
+            Calendar startCal = (Calendar) pickedStart.clone();
+            startCal.set(Calendar.HOUR_OF_DAY, 0);
+            startCal.set(Calendar.MINUTE, 0);
+            startCal.set(Calendar.SECOND, 0);
+            startCal.set(Calendar.MILLISECOND, 0);
+
+            Calendar endCal = (Calendar) pickedEnd.clone();
+            endCal.set(Calendar.HOUR_OF_DAY, 23);
+            endCal.set(Calendar.MINUTE, 59);
+            endCal.set(Calendar.SECOND, 59);
+            endCal.set(Calendar.MILLISECOND, 999);
+
+            if (!eventCal.before(startCal) && !eventCal.after(endCal)) matches++;
+        }
+        return matches;
+    }
+
+    /**The new path: memoized parse, day boundaries computed once for the pass*/
+    private static int codecPass(List<String> texts, Calendar pickedStart, Calendar pickedEnd) {
+        DateCodec.DayRange range = DateCodec.dayRange(pickedStart.getTimeInMillis(), pickedEnd.getTimeInMillis());
+        int matches = 0;
+        for (String text : texts) {
+            if (range.contains(DateCodec.parseEventDateTime(text))) matches++;
+        }
+        return matches;
+    }
+
+    /**Distinct event start strings across two months, like a real catalog*/
+    private static List<String> sampleTexts(int count) {
+        SimpleDateFormat format = new SimpleDateFormat(DateCodec.EVENT_DATE_TIME_PATTERN, DateCodec.EVENT_DATE_TIME_LOCALE);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2025, Calendar.MARCH, 1, 8, 0, 0);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            texts.add(format.format(calendar.getTime()));
+            calendar.add(Calendar.MINUTE, 30);
+        }
+        return texts;
+    }
+}
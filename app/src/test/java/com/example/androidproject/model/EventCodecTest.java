@@ -0,0 +1,174 @@
+package com.example.androidproject.model;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for EventCodec, including a check that it decodes documents the same way
+ * as reflective bean mapping (what DocumentSnapshot.toObject() does).
+ */
+public class EventCodecTest {
+
+    @Test
+    public void decode_readsAllFields() {
+        Map<String, Object> data = document(7);
+        Event event = EventCodec.decode("doc7", data);
+
+        assertEquals("doc7", event.getId());
+        assertEquals("E1700000000007", event.getEventID());
+        assertEquals("A1", event.getAdminID());
+        assertEquals("Event 7", event.getEventName());
+        assertEquals("Hall 7", event.getVenue());
+        assertEquals(30, event.getPax());
+        assertEquals(7, event.getCurrentAttendees());
+        assertEquals("event_pilates", event.getImageName());
+        assertNotEquals(Event.NO_TIME, event.getStartEpochMs());
+        assertEquals(2 * 60 * 60 * 1000L, event.getEndEpochMs() - event.getStartEpochMs());
+    }
+
+    @Test
+    public void decode_missingFieldsKeepDefaults() {
+        Event event = EventCodec.decode("empty", new HashMap<>());
+
+        assertEquals(Event.GENDER_ANY, event.getGenderSpec());
+        assertEquals(0, event.getPax());
+        assertEquals(Event.NO_TIME, event.getStartEpochMs());
+        assertFalse(event.hasTimes());
+    }
+
+    @Test
+    public void decode_fallsBackToImageResKey() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("imageName", " ");
+        data.put("imageResKey", "event_wine_test");
+
+        assertEquals("event_wine_test", EventCodec.decode("x", data).getImageName());
+    }
+
+    @Test
+    public void normalizeGenderSpec_mapsUnknownValuesToAny() {
+        assertEquals(Event.GENDER_MALE, EventCodec.normalizeGenderSpec(1L));
+        assertEquals(Event.GENDER_FEMALE, EventCodec.normalizeGenderSpec(0L));
+        assertEquals(Event.GENDER_FEMALE, EventCodec.normalizeGenderSpec("0"));
+        assertEquals(Event.GENDER_ANY, EventCodec.normalizeGenderSpec(2L));
+        assertEquals(Event.GENDER_ANY, EventCodec.normalizeGenderSpec(5L));
+        assertEquals(Event.GENDER_ANY, EventCodec.normalizeGenderSpec(null));
+        assertEquals(Event.GENDER_ANY, EventCodec.normalizeGenderSpec("male"));
+    }
+
+    @Test
+    public void parseDateTime_rejectsGarbage() {
+        assertEquals(Event.NO_TIME, EventCodec.parseDateTime("tomorrow"));
+        assertEquals(Event.NO_TIME, EventCodec.parseDateTime(null));
+    }
+
+    @Test
+    public void decode_matchesReflectiveMapping() throws Exception {
+        final int n = 100;
+        List<Map<String, Object>> docs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) docs.add(document(i));
+
+        List<Event> decoded = decodeAll(docs);
+        List<Event> reflected = reflectAll(new ReflectiveMapper(Event.class), docs);
+
+        assertEquals(n, decoded.size());
+        for (int i = 0; i < n; i++) {
+            Event a = decoded.get(i);
+            Event b = reflected.get(i);
+            assertEquals(b.getId(), a.getId());
+            assertEquals(b.getEventID(), a.getEventID());
+            assertEquals(b.getEventName(), a.getEventName());
+            assertEquals(b.getVenue(), a.getVenue());
+            assertEquals(b.getDescription(), a.getDescription());
+            assertEquals(b.getPax(), a.getPax());
+            assertEquals(b.getCurrentAttendees(), a.getCurrentAttendees());
+            assertEquals(b.getGenderSpec(), a.getGenderSpec());
+            assertEquals(b.getStartEpochMs(), a.getStartEpochMs());
+            assertEquals(b.getEndEpochMs(), a.getEndEpochMs());
+        }
+    }
+
+    private static List<Event> decodeAll(List<Map<String, Object>> docs) {
+        List<Event> events = new ArrayList<>(docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            events.add(EventCodec.decode("doc" + i, docs.get(i)));
+        }
+        return events;
+    }
+
+    private static List<Event> reflectAll(ReflectiveMapper mapper, List<Map<String, Object>> docs) throws Exception {
+        List<Event> events = new ArrayList<>(docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            Event event = (Event) mapper.map(docs.get(i));
+            event.setId("doc" + i);
+            // toObject() leaves the date strings unparsed; do the same work the codec does
+            event.setStartEpochMs(EventCodec.parseDateTime(event.getStartDateTime()));
+            event.setEndEpochMs(EventCodec.parseDateTime(event.getEndDateTime()));
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**A document shaped like the ones CreateEventActivity writes (Firestore returns Longs)*/
+    private static Map<String, Object> document(int i) {
+        int day = 1 + i % 28;
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventID", "E" + (1700000000000L + i));
+        data.put("adminID", "A1");
+        data.put("eventName", "Event " + i);
+        data.put("venue", "Hall " + (i % 10));
+        data.put("description", "Description for event " + i + " with some longer text to decode");
+        data.put("startDateTime", String.format(Locale.US, "%02d Mar 2025, 09:00 AM", day));
+        data.put("endDateTime", String.format(Locale.US, "%02d Mar 2025, 11:00 AM", day));
+        data.put("pax", 30L);
+        data.put("currentAttendees", (long) (i % 30));
+        data.put("genderSpec", (long) (i % 3));
+        data.put("imageName", "event_pilates");
+        return data;
+    }
+
+    /**
+     * Minimal stand-in for Firestore's CustomClassMapper: setters are found once per class,
+     * then every field of every document goes through a map lookup and Method.invoke.
+     */
+    private static class ReflectiveMapper {
+        private final Class<?> type;
+        private final Map<String, Method> setters = new HashMap<>();
+
+        ReflectiveMapper(Class<?> type) {
+            this.type = type;
+            for (Method method : type.getMethods()) {
+                String name = method.getName();
+                if (name.startsWith("set") && name.length() > 3 && method.getParameterTypes().length == 1) {
+                    String property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                    setters.put(property, method);
+                }
+            }
+        }
+
+        Object map(Map<String, Object> data) throws Exception {
+            Object bean = type.getConstructor().newInstance();
+            for (Map.Entry<String, Object> field : data.entrySet()) {
+                Method setter = setters.get(field.getKey());
+                if (setter == null) continue;
+                Class<?> param = setter.getParameterTypes()[0];
+                Object value = field.getValue();
+                if (param == int.class && value instanceof Number) {
+                    value = ((Number) value).intValue();
+                } else if (param == long.class && value instanceof Number) {
+                    value = ((Number) value).longValue();
+                }
+                setter.invoke(bean, value);
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.androidproject.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for IcsWriter, including an export of 10k synthetic events streamed to a
+ * writer that keeps nothing.
+ */
+public class IcsWriterTest {
+    private static final long NOW = 1_741_000_000_000L;
+
+    @Test
+    public void formatUtc_matchesSimpleDateFormat() {
+        SimpleDateFormat reference = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'", Locale.ROOT);
+        reference.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long ms = random.nextLong() % 4_000_000_000_000L;
+            assertEquals(reference.format(ms), IcsWriter.formatUtc(ms));
+        }
+        assertEquals("19700101T000000Z", IcsWriter.formatUtc(0));
+        assertEquals("20240229T235959Z", IcsWriter.formatUtc(reference.parse("20240229T235959Z", new ParsePosition(0)).getTime()));
+    }
+
+    @Test
+    public void write_producesFoldedEscapedEvent() throws IOException {
+        Event event = event(1);
+        event.setEventName("Food fair; stalls, music & more");
+        event.setDescription("Line one\nLine two with a backslash \\ " + repeat("é", 60));
+
+        StringWriter out = new StringWriter();
+        IcsWriter ics = new IcsWriter(out, NOW);
+        ics.begin();
+        assertTrue(ics.write(event));
+        ics.end();
+        String text = out.toString();
+
+        assertTrue(text.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(text.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(text.contains("UID:E1@androidproject.example.com\r\n"));
+        assertTrue(text.contains("SUMMARY:Food fair\\; stalls\\, music & more\r\n"));
+        assertEquals(1, ics.getWritten());
+
+        for (String physical : text.split("\r\n")) {
+            assertTrue(physical, physical.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        String unfolded = text.replace("\r\n ", "");
+        assertTrue(unfolded.contains("DESCRIPTION:Line one\\nLine two with a backslash \\\\ " + repeat("é", 60) + "\r\n"));
+    }
+
+    @Test
+    public void write_skipsEventsWithoutStart() throws IOException {
+        Event event = event(1);
+        event.setStartEpochMs(Event.NO_TIME);
+        IcsWriter ics = new IcsWriter(new StringWriter(), NOW);
+        assertFalse(ics.write(event));
+        assertEquals(0, ics.getWritten());
+    }
+
+    @Test
+    public void uid_isStableAcrossExports() {
+        Event first = event(42);
+        Event edited = event(42);
+        edited.setEventName("Renamed");
+        edited.setId("another-doc");
+        assertEquals(IcsWriter.uidFor(first), IcsWriter.uidFor(edited));
+        assertNotEquals(IcsWriter.uidFor(first), IcsWriter.uidFor(event(43)));
+    }
+
+    @Test
+    public void write_streams10kEvents() throws IOException {
+        final int events = 10_000;
+        Event[] source = new Event[events];
+        for (int i = 0; i < events; i++) source[i] = event(i);
+
+        CountingWriter out = export(source);
+        assertTrue(out.chars > events * 200L);
+    }
+
+    private static CountingWriter export(Event[] source) throws IOException {
+        CountingWriter out = new CountingWriter();
+        IcsWriter ics = new IcsWriter(out, NOW);
+        ics.begin();
+        for (Event event : source) ics.write(event);
+        ics.end();
+        assertEquals(source.length, ics.getWritten());
+        return out;
+    }
+
+    private static Event event(int i) {
+        Event event = new Event();
+        event.setId("doc" + i);
+        event.setEventID("E" + i);
+        event.setEventName("Event " + i);
+        event.setVenue("Hall " + (i % 12) + ", Level 2");
+        event.setDescription("Synthetic event number " + i + " with a description long enough to need folding once.");
+        event.setStartEpochMs(NOW + i * 3_600_000L);
+        event.setEndEpochMs(NOW + i * 3_600_000L + 5_400_000L);
+        return event;
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) sb.append(s);
+        return sb.toString();
+    }
+
+    /**Discards output, keeping only its length, so nothing grows with the export*/
+    private static class CountingWriter extends Writer {
+        long chars;
+
+        @Override
+        public void write(int c) {
+            chars++;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            chars += len;
+        }
+
+        @Override
+        public void write(String str) {
+            chars += str.length();
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}